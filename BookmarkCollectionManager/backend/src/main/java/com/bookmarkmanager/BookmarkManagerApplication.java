@@ -2,11 +2,15 @@ package com.bookmarkmanager;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 书签管理器主启动类
  */
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class BookmarkManagerApplication {
 
     public static void main(String[] args) {
@@ -2,6 +2,7 @@ package com.bookmarkmanager.controller;
 
 import com.bookmarkmanager.dto.ApiResponse;
 import com.bookmarkmanager.dto.auth.*;
+import com.bookmarkmanager.dto.data.DataClearJobResponse;
 import com.bookmarkmanager.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -106,14 +107,28 @@ public class AuthController {
 
     /**
      * 注销账户
+     * <p>
+     * 账户立即停用，数据在后台清理，返回清理任务状态。
      */
     @DeleteMapping("/account")
-    public ResponseEntity<ApiResponse<Void>> deleteAccount(
+    public ResponseEntity<ApiResponse<DataClearJobResponse>> deleteAccount(
             Authentication authentication,
             @RequestBody java.util.Map<String, String> request) {
         Long userId = (Long) authentication.getPrincipal();
         String password = request.get("password");
         authService.deleteAccount(userId, password);
-        return ResponseEntity.ok(ApiResponse.success("账户已注销", null));
+        DataClearJobResponse job = authService.getAccountDeletion(userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("账户已注销", job));
+    }
+
+    /**
+     * 查询账户注销清理进度
+     */
+    @GetMapping("/account/deletion")
+    public ResponseEntity<ApiResponse<DataClearJobResponse>> getAccountDeletion(Authentication authentication) {
+        Long userId = (Long) authentication.getPrincipal();
+        DataClearJobResponse job = authService.getAccountDeletion(userId);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", job));
     }
 }
@@ -32,9 +32,48 @@ public class BookmarkController {
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String sort) {
+        Long userId = (Long) authentication.getPrincipal();
+        PageResponse<BookmarkResponse> response =
+                bookmarkService.getBookmarks(userId, page, size, categoryId, keyword, sort);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", response));
+    }
+
+    /**
+     * 获取书签列表（分页，不统计总数）
+     * <p>
+     * 携带 slice=true 时只返回 hasNext，适合无限滚动，不需要总数的客户端；同时携带 cursor 时按游标分页处理。
+     */
+    @GetMapping(params = {"slice=true", "!cursor"})
+    public ResponseEntity<ApiResponse<SliceResponse<BookmarkResponse>>> getBookmarkSlice(
+            Authentication authentication,
+            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String sort) {
+        Long userId = (Long) authentication.getPrincipal();
+        SliceResponse<BookmarkResponse> response =
+                bookmarkService.getBookmarkSlice(userId, page, size, categoryId, keyword, sort);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", response));
+    }
+
+    /**
+     * 获取书签列表（游标分页）
+     * <p>
+     * 携带 cursor 参数即进入游标模式，首页传空值（cursor=），之后传上一页返回的 nextCursor。
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BookmarkResponse>>> getBookmarksByCursor(
+            Authentication authentication,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String keyword) {
         Long userId = (Long) authentication.getPrincipal();
-        PageResponse<BookmarkResponse> response = bookmarkService.getBookmarks(userId, page, size, categoryId, keyword);
+        CursorPageResponse<BookmarkResponse> response =
+                bookmarkService.getBookmarksByCursor(userId, cursor, size, categoryId, keyword);
         return ResponseEntity.ok(ApiResponse.success("查询成功", response));
     }
 
@@ -63,6 +102,19 @@ public class BookmarkController {
                 .body(ApiResponse.created("创建成功", bookmark));
     }
 
+    /**
+     * 批量创建书签
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> createBookmarks(
+            Authentication authentication,
+            @Valid @RequestBody BookmarkBatchRequest request) {
+        Long userId = (Long) authentication.getPrincipal();
+        int createdCount = bookmarkService.createBookmarks(userId, request.getBookmarks());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.created("批量创建成功", Map.of("createdCount", createdCount)));
+    }
+
     /**
      * 更新书签
      */
@@ -101,6 +153,18 @@ public class BookmarkController {
         return ResponseEntity.ok(ApiResponse.success("批量删除成功", Map.of("deletedCount", deletedCount)));
     }
 
+    /**
+     * 记录书签访问
+     */
+    @PostMapping("/{id}/visit")
+    public ResponseEntity<ApiResponse<Void>> recordVisit(
+            Authentication authentication,
+            @PathVariable Long id) {
+        Long userId = (Long) authentication.getPrincipal();
+        bookmarkService.recordVisit(userId, id);
+        return ResponseEntity.ok(ApiResponse.success("已记录访问", null));
+    }
+
     /**
      * 调整书签顺序
      */
@@ -113,6 +177,19 @@ public class BookmarkController {
         return ResponseEntity.ok(ApiResponse.success("排序更新成功", null));
     }
 
+    /**
+     * 调整单个书签位置
+     */
+    @PutMapping("/{id}/position")
+    public ResponseEntity<ApiResponse<BookmarkResponse>> positionBookmark(
+            Authentication authentication,
+            @PathVariable Long id,
+            @RequestBody BookmarkPositionRequest request) {
+        Long userId = (Long) authentication.getPrincipal();
+        BookmarkResponse bookmark = bookmarkService.positionBookmark(userId, id, request);
+        return ResponseEntity.ok(ApiResponse.success("排序更新成功", bookmark));
+    }
+
     /**
      * 移动书签到分类
      */
@@ -1,6 +1,7 @@
 package com.bookmarkmanager.controller;
 
 import com.bookmarkmanager.dto.ApiResponse;
+import com.bookmarkmanager.dto.category.CategoryPositionRequest;
 import com.bookmarkmanager.dto.category.CategoryReorderRequest;
 import com.bookmarkmanager.dto.category.CategoryRequest;
 import com.bookmarkmanager.dto.category.CategoryResponse;
@@ -84,4 +85,17 @@ public class CategoryController {
         categoryService.reorderCategories(userId, request.getCategoryIds());
         return ResponseEntity.ok(ApiResponse.success("排序更新成功", null));
     }
+
+    /**
+     * 调整单个分类位置
+     */
+    @PutMapping("/{id}/position")
+    public ResponseEntity<ApiResponse<CategoryResponse>> positionCategory(
+            Authentication authentication,
+            @PathVariable Long id,
+            @RequestBody CategoryPositionRequest request) {
+        Long userId = (Long) authentication.getPrincipal();
+        CategoryResponse category = categoryService.positionCategory(userId, id, request);
+        return ResponseEntity.ok(ApiResponse.success("排序更新成功", category));
+    }
 }
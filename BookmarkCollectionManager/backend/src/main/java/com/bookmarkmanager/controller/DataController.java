@@ -1,20 +1,27 @@
 package com.bookmarkmanager.controller;
 
 import com.bookmarkmanager.dto.ApiResponse;
-import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
-import com.bookmarkmanager.dto.category.CategoryResponse;
-import com.bookmarkmanager.service.BookmarkService;
-import com.bookmarkmanager.service.CategoryService;
+import com.bookmarkmanager.dto.data.DataClearJobResponse;
+import com.bookmarkmanager.dto.data.ImportJobResponse;
+import com.bookmarkmanager.dto.data.ImportUploadResponse;
+import com.bookmarkmanager.service.DataClearJobs;
 import com.bookmarkmanager.service.DataService;
+import com.bookmarkmanager.service.ImportJobs;
+import com.bookmarkmanager.service.ImportUploads;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 数据导入导出控制器
@@ -24,58 +31,229 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DataController {
 
-    private final BookmarkService bookmarkService;
-    private final CategoryService categoryService;
     private final DataService dataService;
+    private final DataClearJobs dataClearJobs;
+    private final ImportJobs importJobs;
+    private final ImportUploads importUploads;
 
     /**
      * 导出数据
+     * <p>
+     * 响应体边查询边写出，格式与普通接口一致（ApiResponse 包装），可直接用于导入。
+     * Accept 包含 application/x-ndjson 时改为 NDJSON 格式；Accept-Encoding 中 gzip（或未单独列出 gzip 时的 *）
+     * 的 q 值大于 0 时压缩输出，gzip;q=0 表示拒绝。
      */
     @GetMapping("/export")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> exportData(Authentication authentication) {
+    public ResponseEntity<StreamingResponseBody> exportData(
+            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         Long userId = (Long) authentication.getPrincipal();
+        if (accept == null || !accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+            StreamingResponseBody body = out -> dataService.exportData(userId, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .body(body);
+        }
 
-        List<BookmarkResponse> bookmarks = bookmarkService.getAllBookmarks(userId);
-        List<CategoryResponse> categories = categoryService.getCategories(userId);
-
-        Map<String, Object> data = new HashMap<>();
-        data.put("exportTime", LocalDateTime.now());
-        data.put("bookmarks", bookmarks);
-        data.put("categories", categories);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = gzip
+                ? out -> {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                    dataService.exportNdjson(userId, compressed);
+                    compressed.finish();
+                }
+                : out -> dataService.exportNdjson(userId, out);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookmarks.ndjson\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 
-        return ResponseEntity.ok(ApiResponse.success("导出成功", data));
+    /**
+     * 按 Accept-Encoding 的编码名和 q 值判断客户端是否接受 gzip；q 值无法解析时视为 0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String token : acceptEncoding.split(",")) {
+            String[] params = token.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
     }
 
     /**
      * 导入数据
+     * <p>
+     * 请求体原样写入临时文件后登记后台导入任务，立即返回任务状态，通过 GET /import/{jobId} 查询进度。
+     * Content-Type 为 application/x-ndjson 时按 NDJSON 逐行导入；请求体可以是 gzip 压缩的文件。
      */
     @PostMapping("/import")
-    public ResponseEntity<ApiResponse<Map<String, Integer>>> importData(
+    public ResponseEntity<ApiResponse<ImportJobResponse>> importData(
             Authentication authentication,
-            @RequestBody Map<String, Object> request) {
+            HttpServletRequest request) throws IOException {
         Long userId = (Long) authentication.getPrincipal();
+        String contentType = request.getContentType();
+        String format = contentType != null && contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE)
+                ? "ndjson" : "json";
+        ImportJobResponse job = importJobs.submit(userId, format, request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("导入任务已提交", job));
+    }
 
-        // 调用 DataService 进行导入
-        Map<String, Integer> result = dataService.importData(userId, request);
+    /**
+     * 查询导入任务状态
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> getImportJob(
+            Authentication authentication,
+            @PathVariable String jobId) {
+        Long userId = (Long) authentication.getPrincipal();
+        ImportJobResponse job = importJobs.get(userId, jobId);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", job));
+    }
 
-        return ResponseEntity.ok(ApiResponse.success("导入成功", result));
+    /**
+     * 创建分片上传，用于网络不稳定时上传大文件；format 为 json、ndjson 或 html
+     */
+    @PostMapping("/import/uploads")
+    public ResponseEntity<ApiResponse<ImportUploadResponse>> initiateUpload(
+            Authentication authentication,
+            @RequestParam(defaultValue = "json") String format) throws IOException {
+        Long userId = (Long) authentication.getPrincipal();
+        ImportUploadResponse upload = importUploads.initiate(userId, format);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.created("上传已创建", upload));
     }
 
     /**
-     * 清空所有数据
+     * 上传一个分片，请求体为分片原始内容；重复上传同一编号会覆盖
      */
-    @DeleteMapping("/data/clear")
-    public ResponseEntity<ApiResponse<Map<String, Integer>>> clearAllData(Authentication authentication) {
+    @PutMapping("/import/uploads/{uploadId}/parts/{partNumber}")
+    public ResponseEntity<ApiResponse<ImportUploadResponse>> uploadPart(
+            Authentication authentication,
+            @PathVariable String uploadId,
+            @PathVariable int partNumber,
+            HttpServletRequest request) throws IOException {
         Long userId = (Long) authentication.getPrincipal();
+        ImportUploadResponse upload = importUploads.uploadPart(userId, uploadId, partNumber, request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success("分片已接收", upload));
+    }
 
-        // 清空书签和分类
-        int deletedBookmarks = bookmarkService.deleteAllBookmarksByUserId(userId);
-        int deletedCategories = categoryService.deleteAllCategoriesByUserId(userId);
+    /**
+     * 查询分片上传状态（已收到的分片），断线后据此补传
+     */
+    @GetMapping("/import/uploads/{uploadId}")
+    public ResponseEntity<ApiResponse<ImportUploadResponse>> getUpload(
+            Authentication authentication,
+            @PathVariable String uploadId) {
+        Long userId = (Long) authentication.getPrincipal();
+        ImportUploadResponse upload = importUploads.get(userId, uploadId);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", upload));
+    }
 
-        Map<String, Integer> result = new HashMap<>();
-        result.put("deletedBookmarks", deletedBookmarks);
-        result.put("deletedCategories", deletedCategories);
+    /**
+     * 完成分片上传，拼接后提交后台导入任务，返回任务状态
+     */
+    @PostMapping("/import/uploads/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> completeUpload(
+            Authentication authentication,
+            @PathVariable String uploadId,
+            @RequestParam int parts) throws IOException {
+        Long userId = (Long) authentication.getPrincipal();
+        ImportJobResponse job = importUploads.complete(userId, uploadId, parts);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("导入任务已提交", job));
+    }
 
-        return ResponseEntity.ok(ApiResponse.success("数据已清空", result));
+    /**
+     * 取消分片上传
+     */
+    @DeleteMapping("/import/uploads/{uploadId}")
+    public ResponseEntity<ApiResponse<Void>> abortUpload(
+            Authentication authentication,
+            @PathVariable String uploadId) {
+        Long userId = (Long) authentication.getPrincipal();
+        importUploads.abort(userId, uploadId);
+        return ResponseEntity.ok(ApiResponse.success("上传已取消", null));
+    }
+
+    /**
+     * 导出为浏览器书签 HTML（Netscape 格式），可直接导入 Chrome、Firefox、Edge
+     */
+    @GetMapping("/export/html")
+    public ResponseEntity<StreamingResponseBody> exportHtml(Authentication authentication) {
+        Long userId = (Long) authentication.getPrincipal();
+        StreamingResponseBody body = out -> dataService.exportHtml(userId, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookmarks.html\"")
+                .body(body);
+    }
+
+    /**
+     * 导入浏览器导出的书签 HTML，请求体为 HTML 原文；与 JSON 导入一样作为后台任务执行
+     */
+    @PostMapping("/import/html")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> importHtml(
+            Authentication authentication,
+            HttpServletRequest request) throws IOException {
+        Long userId = (Long) authentication.getPrincipal();
+        ImportJobResponse job = importJobs.submit(userId, "html", request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("导入任务已提交", job));
+    }
+
+    /**
+     * 清空所有数据
+     * <p>
+     * 提交后台任务后立即返回任务状态，通过 GET /data/clear/{jobId} 查询进度。
+     */
+    @DeleteMapping("/data/clear")
+    public ResponseEntity<ApiResponse<DataClearJobResponse>> clearAllData(Authentication authentication) {
+        Long userId = (Long) authentication.getPrincipal();
+        DataClearJobResponse job = dataClearJobs.start(userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("清空任务已提交", job));
+    }
+
+    /**
+     * 查询清空数据任务状态
+     */
+    @GetMapping("/data/clear/{jobId}")
+    public ResponseEntity<ApiResponse<DataClearJobResponse>> getClearJob(
+            Authentication authentication,
+            @PathVariable String jobId) {
+        Long userId = (Long) authentication.getPrincipal();
+        DataClearJobResponse job = dataClearJobs.get(userId, jobId);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", job));
     }
 }
@@ -1,15 +1,23 @@
 package com.bookmarkmanager.controller;
 
 import com.bookmarkmanager.dto.ApiResponse;
+import com.bookmarkmanager.dto.statistics.DomainStat;
+import com.bookmarkmanager.dto.statistics.GlobalDomainsResponse;
 import com.bookmarkmanager.dto.statistics.StatisticsResponse;
+import com.bookmarkmanager.dto.statistics.TimelineResponse;
 import com.bookmarkmanager.service.StatisticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.List;
+
 /**
  * 统计控制器
  */
@@ -29,4 +37,42 @@ public class StatisticsController {
         StatisticsResponse statistics = statisticsService.getStatistics(userId);
         return ResponseEntity.ok(ApiResponse.success("查询成功", statistics));
     }
+
+    /**
+     * 获取书签活动时间线
+     */
+    @GetMapping("/timeline")
+    public ResponseEntity<ApiResponse<TimelineResponse>> getTimeline(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        Long userId = (Long) authentication.getPrincipal();
+        TimelineResponse timeline = statisticsService.getTimeline(userId, from, to, granularity);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", timeline));
+    }
+
+    /**
+     * 获取书签最多的站点
+     */
+    @GetMapping("/domains")
+    public ResponseEntity<ApiResponse<List<DomainStat>>> getTopDomains(
+            Authentication authentication,
+            @RequestParam(defaultValue = "10") int limit) {
+        Long userId = (Long) authentication.getPrincipal();
+        List<DomainStat> domains = statisticsService.getTopDomains(userId, limit);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", domains));
+    }
+
+    /**
+     * 获取全站书签最多的站点（仅管理员）
+     */
+    @GetMapping("/domains/global")
+    public ResponseEntity<ApiResponse<GlobalDomainsResponse>> getGlobalTopDomains(
+            Authentication authentication,
+            @RequestParam(defaultValue = "20") int limit) {
+        Long userId = (Long) authentication.getPrincipal();
+        GlobalDomainsResponse domains = statisticsService.getGlobalTopDomains(userId, limit);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", domains));
+    }
 }
@@ -0,0 +1,35 @@
+package com.bookmarkmanager.controller;
+
+import com.bookmarkmanager.dto.ApiResponse;
+import com.bookmarkmanager.dto.sync.SyncResponse;
+import com.bookmarkmanager.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 增量同步控制器
+ */
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * 获取上次同步之后的书签和分类变更
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<SyncResponse>> sync(
+            Authentication authentication,
+            @RequestParam(required = false) String since) {
+        Long userId = (Long) authentication.getPrincipal();
+        SyncResponse changes = syncService.getChanges(userId, since);
+        return ResponseEntity.ok(ApiResponse.success("查询成功", changes));
+    }
+}
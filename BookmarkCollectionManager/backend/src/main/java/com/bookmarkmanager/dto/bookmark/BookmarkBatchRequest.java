@@ -0,0 +1,20 @@
+package com.bookmarkmanager.dto.bookmark;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量创建书签请求
+ */
+@Data
+public class BookmarkBatchRequest {
+
+    @NotEmpty(message = "书签列表不能为空")
+    @Size(max = 10000, message = "单次最多创建10000个书签")
+    @Valid
+    private List<BookmarkRequest> bookmarks;
+}
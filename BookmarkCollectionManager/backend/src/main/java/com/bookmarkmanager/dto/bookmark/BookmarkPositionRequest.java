@@ -0,0 +1,16 @@
+package com.bookmarkmanager.dto.bookmark;
+
+import lombok.Data;
+
+/**
+ * 调整书签位置请求，beforeId 和 afterId 二选一
+ */
+@Data
+public class BookmarkPositionRequest {
+
+    // 移动到该书签之前
+    private Long beforeId;
+
+    // 移动到该书签之后
+    private Long afterId;
+}
@@ -26,4 +26,6 @@ public class BookmarkResponse {
     private Integer sortOrder;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long visitCount;
+    private LocalDateTime lastVisitedAt;
 }
@@ -0,0 +1,23 @@
+package com.bookmarkmanager.dto.bookmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页响应（不返回总数）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+    private List<T> list;
+}
@@ -0,0 +1,23 @@
+package com.bookmarkmanager.dto.bookmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 分页响应（不含总数，只返回是否有下一页）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceResponse<T> {
+
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private List<T> list;
+}
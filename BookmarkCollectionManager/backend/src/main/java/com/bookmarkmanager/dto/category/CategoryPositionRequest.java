@@ -0,0 +1,16 @@
+package com.bookmarkmanager.dto.category;
+
+import lombok.Data;
+
+/**
+ * 调整分类位置请求，beforeId 和 afterId 二选一
+ */
+@Data
+public class CategoryPositionRequest {
+
+    // 移动到该分类之前
+    private Long beforeId;
+
+    // 移动到该分类之后
+    private Long afterId;
+}
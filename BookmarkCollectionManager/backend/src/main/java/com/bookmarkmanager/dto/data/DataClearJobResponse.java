@@ -0,0 +1,31 @@
+package com.bookmarkmanager.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 清空数据、注销账户任务状态响应
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataClearJobResponse {
+
+    private String jobId;
+    // RUNNING / COMPLETED / FAILED
+    private String status;
+    // 任务开始时待删除的数量
+    private int totalBookmarks;
+    private int totalCategories;
+    // 已删除的数量，任务完成后即为最终删除数
+    private int deletedBookmarks;
+    private int deletedCategories;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
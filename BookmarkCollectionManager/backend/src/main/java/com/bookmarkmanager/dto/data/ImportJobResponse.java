@@ -0,0 +1,36 @@
+package com.bookmarkmanager.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 导入任务状态响应
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+
+    private String jobId;
+    // json / ndjson / html
+    private String format;
+    // QUEUED / RUNNING / COMPLETED / FAILED
+    private String status;
+    // 已处理的书签数（导入 + 重复 + 出错）
+    private int processedBookmarks;
+    private int importedBookmarks;
+    private int importedCategories;
+    // 因URL重复跳过的书签数
+    private int duplicateBookmarks;
+    // 因数据无效或写入失败跳过的书签数
+    private int failedBookmarks;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
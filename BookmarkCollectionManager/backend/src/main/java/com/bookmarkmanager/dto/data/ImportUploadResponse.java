@@ -0,0 +1,30 @@
+package com.bookmarkmanager.dto.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分片上传状态响应
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportUploadResponse {
+
+    private String uploadId;
+    // json / ndjson / html
+    private String format;
+    // 已完整收到的分片编号（升序），断线后只需补传缺少的分片
+    private List<Integer> receivedParts;
+    private long receivedBytes;
+    private long maxPartSize;
+    private LocalDateTime createdAt;
+    // 超过此时间没有新分片时上传被丢弃
+    private LocalDateTime expiresAt;
+}
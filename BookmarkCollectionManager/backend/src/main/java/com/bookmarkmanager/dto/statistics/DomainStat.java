@@ -0,0 +1,19 @@
+package com.bookmarkmanager.dto.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 站点书签数
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainStat {
+
+    private String host;
+    private long count;
+}
@@ -0,0 +1,41 @@
+package com.bookmarkmanager.dto.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 全站书签最多的站点（近似值）响应
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GlobalDomainsResponse {
+
+    private List<Domain> domains;
+    // 草图累计的书签数（上次重建时的书签数加上之后新增的书签数）
+    private long totalBookmarks;
+    // 草图最多跟踪的站点数
+    private int capacity;
+    // 当前跟踪的站点数
+    private int trackedDomains;
+    // 草图估算占用的内存（字节）
+    private long estimatedBytes;
+    private LocalDateTime rebuiltAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Domain {
+        private String host;
+        // 计数上限，真实书签数在 [count - error, count] 之间
+        private long count;
+        private long error;
+    }
+}
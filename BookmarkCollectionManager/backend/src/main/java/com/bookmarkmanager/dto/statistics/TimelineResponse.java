@@ -0,0 +1,37 @@
+package com.bookmarkmanager.dto.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 书签活动时间线响应
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineResponse {
+
+    // day / week / month
+    private String granularity;
+    private LocalDate from;
+    private LocalDate to;
+    // 按时间顺序的每个时间段，没有活动的时间段计数为 0
+    private List<Point> points;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        // 时间段的第一天：周从周一开始，月从 1 日开始
+        private LocalDate start;
+        private long added;
+        private long deleted;
+    }
+}
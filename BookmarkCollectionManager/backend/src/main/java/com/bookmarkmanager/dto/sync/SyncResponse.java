@@ -0,0 +1,29 @@
+package com.bookmarkmanager.dto.sync;
+
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.dto.category.CategoryResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 增量同步响应
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+
+    // 下次同步时作为 since 传回
+    private String token;
+    // 为 true 时变更列表为空，客户端需重新拉取全部书签和分类
+    private boolean fullRefresh;
+    private List<BookmarkResponse> bookmarks;
+    private List<CategoryResponse> categories;
+    private List<Long> deletedBookmarkIds;
+    private List<Long> deletedCategoryIds;
+}
@@ -1,5 +1,7 @@
 package com.bookmarkmanager.entity;
 
+import com.bookmarkmanager.util.UrlHash;
+import com.bookmarkmanager.util.UrlHost;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,8 +21,12 @@ import java.time.LocalDateTime;
 @Table(name = "bookmarks")
 public class Bookmark {
 
+    // 表生成器每次预取 100 个ID，插入时不必等数据库返回自增ID，可以走 JDBC 批量插入
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bookmark_id")
+    @TableGenerator(name = "bookmark_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "bookmarks", allocationSize = 100)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -32,6 +38,14 @@ public class Bookmark {
     @Column(nullable = false, length = 500)
     private String url;
 
+    // URL 的 64 位哈希，持久化前自动计算
+    @Column(name = "url_hash")
+    private Long urlHash;
+
+    // URL 的主机名，持久化前自动计算
+    @Column(length = UrlHost.MAX_LENGTH)
+    private String host;
+
     @Column(length = 500)
     private String description;
 
@@ -45,6 +59,17 @@ public class Bookmark {
     @Builder.Default
     private Integer sortOrder = 0;
 
+    // 访问统计由 VisitCounter 通过批量 SQL 累加，实体只读，避免保存书签时覆盖
+    @Column(name = "visit_count", insertable = false, updatable = false)
+    private Long visitCount;
+
+    @Column(name = "last_visited_at", insertable = false, updatable = false)
+    private LocalDateTime lastVisitedAt;
+
+    // 对数形式的衰减访问得分，只用于排序
+    @Column(name = "frecency", insertable = false, updatable = false)
+    private Double frecency;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -53,12 +78,19 @@ public class Bookmark {
 
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        // 导入浏览器书签时保留原来的添加时间
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
         this.updatedAt = LocalDateTime.now();
+        this.urlHash = UrlHash.of(url);
+        this.host = UrlHost.of(url);
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.urlHash = UrlHash.of(url);
+        this.host = UrlHost.of(url);
     }
 }
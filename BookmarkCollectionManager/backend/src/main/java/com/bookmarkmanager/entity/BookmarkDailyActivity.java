@@ -0,0 +1,41 @@
+package com.bookmarkmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 书签活动日汇总实体类
+ * <p>
+ * 用户每天新增和删除的书签数，由 BookmarkActivity 在书签写操作的同一事务中增减，实体只读。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "bookmark_daily_activity")
+public class BookmarkDailyActivity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    // 当天创建的书签数（按 created_at，导入的书签计入原来的添加日期）
+    @Column(name = "added_count", nullable = false)
+    private long addedCount;
+
+    // 当天删除的书签数
+    @Column(name = "deleted_count", nullable = false)
+    private long deletedCount;
+}
@@ -36,11 +36,24 @@ public class Category {
     @Builder.Default
     private Integer sortOrder = 0;
 
+    // 书签数由 BookmarkCounters 通过 SQL 增减，实体只读，避免保存分类时覆盖
+    @Column(name = "bookmark_count", insertable = false, updatable = false)
+    private Long bookmarkCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,43 @@
+package com.bookmarkmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 删除墓碑实体类
+ * <p>
+ * 记录被删除的书签和分类，供增量同步告知客户端；清空全部数据时记录一条 RESET。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sync_tombstones")
+public class SyncTombstone {
+
+    public static final String BOOKMARK = "BOOKMARK";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String RESET = "RESET";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,31 @@
+package com.bookmarkmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户书签计数实体类
+ * <p>
+ * 书签总数和未分类书签数，由 BookmarkCounters 在书签写操作的同一事务中增减，实体只读。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_bookmark_counts")
+public class UserBookmarkCount {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "uncategorized_count", nullable = false)
+    private long uncategorizedCount;
+}
@@ -0,0 +1,27 @@
+package com.bookmarkmanager.repository;
+
+import com.bookmarkmanager.entity.BookmarkDailyActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 书签活动日汇总数据访问层
+ */
+@Repository
+public interface BookmarkDailyActivityRepository extends JpaRepository<BookmarkDailyActivity, Long>,
+        BookmarkDailyActivityRepositoryCustom {
+
+    // 时间线：[from, to] 范围内有活动的日期，没有活动的日期没有行
+    List<BookmarkDailyActivity> findByUserIdAndActivityDateBetweenOrderByActivityDateAsc(Long userId, LocalDate from, LocalDate to);
+
+    // 删除用户的所有汇总
+    @Modifying
+    @Query("DELETE FROM BookmarkDailyActivity a WHERE a.userId = :userId")
+    void deleteAllByUserId(@Param("userId") Long userId);
+}
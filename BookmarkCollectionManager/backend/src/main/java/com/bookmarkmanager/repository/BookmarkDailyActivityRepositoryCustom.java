@@ -0,0 +1,24 @@
+package com.bookmarkmanager.repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 书签活动日汇总的增量更新
+ */
+public interface BookmarkDailyActivityRepositoryCustom {
+
+    /**
+     * 按日期累加新增数和删除数，当天没有汇总行时插入；按日期顺序更新，并发事务不会交叉死锁
+     *
+     * @param addedByDay   日期 -> 新增数
+     * @param deletedByDay 日期 -> 删除数
+     */
+    void addActivity(Long userId, Map<LocalDate, Long> addedByDay, Map<LocalDate, Long> deletedByDay);
+
+    /**
+     * 按 bookmarks.created_at 重新统计用户每天的新增数；已有的汇总只会调大，不丢失回填前已记录、之后又被删除的书签。
+     * 调用方须先在同一事务中锁住用户计数行
+     */
+    void backfillAdded(Long userId);
+}
@@ -0,0 +1,49 @@
+package com.bookmarkmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 书签活动日汇总数据访问层 JDBC 实现
+ */
+@RequiredArgsConstructor
+public class BookmarkDailyActivityRepositoryImpl implements BookmarkDailyActivityRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addActivity(Long userId, Map<LocalDate, Long> addedByDay, Map<LocalDate, Long> deletedByDay) {
+        TreeMap<LocalDate, long[]> deltas = new TreeMap<>();
+        addedByDay.forEach((day, count) -> deltas.computeIfAbsent(day, d -> new long[2])[0] += count);
+        deletedByDay.forEach((day, count) -> deltas.computeIfAbsent(day, d -> new long[2])[1] += count);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Map.Entry<LocalDate, long[]> entry : deltas.entrySet()) {
+            long[] delta = entry.getValue();
+            args.add(new Object[]{userId, Date.valueOf(entry.getKey()), delta[0], delta[1], delta[0], delta[1]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookmark_daily_activity (user_id, activity_date, added_count, deleted_count) " +
+                "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                "added_count = added_count + ?, deleted_count = deleted_count + ?", args);
+    }
+
+    @Override
+    public void backfillAdded(Long userId) {
+        // 普通查询是不加锁的快照读；INSERT ... SELECT 会给扫描到的书签加共享锁，与等待计数行锁的写事务互相等待
+        List<Object[]> args = jdbcTemplate.query("SELECT DATE(created_at), COUNT(*) FROM bookmarks " +
+                        "WHERE user_id = ? GROUP BY DATE(created_at) ORDER BY DATE(created_at)",
+                (rs, rowNum) -> new Object[]{userId, rs.getDate(1), rs.getLong(2)}, userId);
+        jdbcTemplate.batchUpdate("INSERT INTO bookmark_daily_activity (user_id, activity_date, added_count) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE added_count = GREATEST(added_count, VALUES(added_count))", args);
+    }
+}
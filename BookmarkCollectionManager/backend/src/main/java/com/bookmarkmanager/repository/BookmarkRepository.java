@@ -1,57 +1,227 @@
 package com.bookmarkmanager.repository;
 
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
 import com.bookmarkmanager.entity.Bookmark;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 书签数据访问层
  */
 @Repository
-public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
-
-    // 分页查询用户的所有书签
-    Page<Bookmark> findByUserIdOrderBySortOrderAsc(Long userId, Pageable pageable);
-
-    // 按分类查询
-    Page<Bookmark> findByUserIdAndCategoryIdOrderBySortOrderAsc(Long userId, Long categoryId, Pageable pageable);
+public interface BookmarkRepository extends JpaRepository<Bookmark, Long>, BookmarkRepositoryCustom {
+
+    // 书签响应投影列，分类名通过 LEFT JOIN 一并取出，避免逐行查询分类
+    String RESPONSE_COLUMNS = "new com.bookmarkmanager.dto.bookmark.BookmarkResponse(" +
+            "b.id, b.title, b.url, b.description, b.favicon, b.categoryId, c.name, b.sortOrder, b.createdAt, b.updatedAt, " +
+            "b.visitCount, b.lastVisitedAt)";
+
+    // 关键词匹配条件（标题或描述）
+    String KEYWORD_CONDITION = "(LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%')))";
+
+    // 游标条件：(sortOrder, id) 严格大于游标位置，前半部分给索引提供范围扫描起点
+    String AFTER_CURSOR_CONDITION = "b.sortOrder >= :sortOrder AND (b.sortOrder > :sortOrder OR b.id > :id)";
+
+    // 反向游标条件：(sortOrder, id) 严格小于游标位置
+    String BEFORE_CURSOR_CONDITION = "b.sortOrder <= :sortOrder AND (b.sortOrder < :sortOrder OR b.id < :id)";
+
+    // 分页查询用户的所有书签（含分类名，单条 SQL，不做 COUNT）
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId ORDER BY b.sortOrder ASC, b.id ASC")
+    Slice<BookmarkResponse> findSliceByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 按分类分页查询
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND b.categoryId = :categoryId ORDER BY b.sortOrder ASC, b.id ASC")
+    Slice<BookmarkResponse> findSliceByUserIdAndCategoryId(@Param("userId") Long userId,
+                                                           @Param("categoryId") Long categoryId,
+                                                           Pageable pageable);
+
+    // 按 frecency 分页查询（常访问、最近访问的在前，未访问过的按原顺序排在最后）
+    // 不写 NULLS LAST：MySQL 中 NULL 最小，DESC 时自然排在最后，写了反而无法利用 (user_id, frecency) 索引
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId ORDER BY b.frecency DESC, b.sortOrder ASC, b.id ASC")
+    Slice<BookmarkResponse> findSliceByUserIdOrderByFrecency(@Param("userId") Long userId, Pageable pageable);
+
+    // 按分类和 frecency 分页查询
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND b.categoryId = :categoryId " +
+           "ORDER BY b.frecency DESC, b.sortOrder ASC, b.id ASC")
+    Slice<BookmarkResponse> findSliceByUserIdAndCategoryIdOrderByFrecency(@Param("userId") Long userId,
+                                                                        @Param("categoryId") Long categoryId,
+                                                                        Pageable pageable);
 
     // 搜索书签
-    @Query("SELECT b FROM Bookmark b WHERE b.userId = :userId AND " +
-           "(LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Bookmark> searchByKeyword(@Param("userId") Long userId, @Param("keyword") String keyword, Pageable pageable);
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND " + KEYWORD_CONDITION + " ORDER BY b.sortOrder ASC, b.id ASC")
+    Slice<BookmarkResponse> searchByKeyword(@Param("userId") Long userId, @Param("keyword") String keyword, Pageable pageable);
 
     // 按分类和关键词搜索
-    @Query("SELECT b FROM Bookmark b WHERE b.userId = :userId AND b.categoryId = :categoryId AND " +
-           "(LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(b.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Bookmark> searchByCategoryAndKeyword(@Param("userId") Long userId, 
-                                               @Param("categoryId") Long categoryId,
-                                               @Param("keyword") String keyword, 
-                                               Pageable pageable);
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND b.categoryId = :categoryId AND " + KEYWORD_CONDITION +
+           " ORDER BY b.sortOrder ASC, b.id ASC")
+    Slice<BookmarkResponse> searchByCategoryAndKeyword(@Param("userId") Long userId, 
+                                                       @Param("categoryId") Long categoryId,
+                                                       @Param("keyword") String keyword, 
+                                                       Pageable pageable);
+
+    // 统计关键词匹配数量
+    @Query("SELECT COUNT(b) FROM Bookmark b WHERE b.userId = :userId AND " + KEYWORD_CONDITION)
+    long countByKeyword(@Param("userId") Long userId, @Param("keyword") String keyword);
+
+    // 统计分类内关键词匹配数量
+    @Query("SELECT COUNT(b) FROM Bookmark b WHERE b.userId = :userId AND b.categoryId = :categoryId AND " +
+           KEYWORD_CONDITION)
+    long countByCategoryAndKeyword(@Param("userId") Long userId,
+                                   @Param("categoryId") Long categoryId,
+                                   @Param("keyword") String keyword);
+
+    // 游标分页：取 (sortOrder, id) 之后的书签，不做 COUNT
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND " + AFTER_CURSOR_CONDITION + " ORDER BY b.sortOrder ASC, b.id ASC")
+    List<BookmarkResponse> findAfterCursor(@Param("userId") Long userId,
+                                           @Param("sortOrder") Integer sortOrder,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    // 游标分页：按分类
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND b.categoryId = :categoryId AND " + AFTER_CURSOR_CONDITION +
+           " ORDER BY b.sortOrder ASC, b.id ASC")
+    List<BookmarkResponse> findByCategoryAfterCursor(@Param("userId") Long userId,
+                                                     @Param("categoryId") Long categoryId,
+                                                     @Param("sortOrder") Integer sortOrder,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    // 游标分页：按关键词
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND " + KEYWORD_CONDITION + " AND " + AFTER_CURSOR_CONDITION +
+           " ORDER BY b.sortOrder ASC, b.id ASC")
+    List<BookmarkResponse> searchByKeywordAfterCursor(@Param("userId") Long userId,
+                                                      @Param("keyword") String keyword,
+                                                      @Param("sortOrder") Integer sortOrder,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+
+    // 游标分页：按分类和关键词
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND b.categoryId = :categoryId AND " + KEYWORD_CONDITION + " AND " +
+           AFTER_CURSOR_CONDITION + " ORDER BY b.sortOrder ASC, b.id ASC")
+    List<BookmarkResponse> searchByCategoryAndKeywordAfterCursor(@Param("userId") Long userId,
+                                                                 @Param("categoryId") Long categoryId,
+                                                                 @Param("keyword") String keyword,
+                                                                 @Param("sortOrder") Integer sortOrder,
+                                                                 @Param("id") Long id,
+                                                                 Pageable pageable);
+
+    // 排序键：取某位置之后的书签（升序）
+    @Query("SELECT new com.bookmarkmanager.repository.SortKey(b.id, b.sortOrder) FROM Bookmark b " +
+           "WHERE b.userId = :userId AND b.id <> :excludeId AND " + AFTER_CURSOR_CONDITION +
+           " ORDER BY b.sortOrder ASC, b.id ASC")
+    List<SortKey> findSortKeysAfter(@Param("userId") Long userId,
+                                    @Param("sortOrder") Integer sortOrder,
+                                    @Param("id") Long id,
+                                    @Param("excludeId") Long excludeId,
+                                    Pageable pageable);
+
+    // 排序键：取某位置之前的书签（降序）
+    @Query("SELECT new com.bookmarkmanager.repository.SortKey(b.id, b.sortOrder) FROM Bookmark b " +
+           "WHERE b.userId = :userId AND b.id <> :excludeId AND " + BEFORE_CURSOR_CONDITION +
+           " ORDER BY b.sortOrder DESC, b.id DESC")
+    List<SortKey> findSortKeysBefore(@Param("userId") Long userId,
+                                     @Param("sortOrder") Integer sortOrder,
+                                     @Param("id") Long id,
+                                     @Param("excludeId") Long excludeId,
+                                     Pageable pageable);
+
+    // 流式读取用户的所有书签（用于导出），需在事务内消费并关闭；按 fetch size 分批从游标取行
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Bookmark b WHERE b.userId = :userId ORDER BY b.sortOrder ASC, b.id ASC")
+    Stream<Bookmark> streamByUserId(@Param("userId") Long userId);
+
+    // 同上，按分类分组（MySQL 升序时 NULL 即未分类在前，走 (user_id, category_id, sort_order, id) 索引）
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Bookmark b WHERE b.userId = :userId " +
+           "ORDER BY b.categoryId ASC, b.sortOrder ASC, b.id ASC")
+    Stream<Bookmark> streamByUserIdGroupedByCategory(@Param("userId") Long userId);
+
+    // 查询单个书签响应
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.id = :id AND b.userId = :userId")
+    Optional<BookmarkResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // 按ID批量查询书签响应（搜索索引回表）
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND b.id IN :ids")
+    List<BookmarkResponse> findResponsesByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
     // 根据ID和用户ID查询
     Optional<Bookmark> findByIdAndUserId(Long id, Long userId);
 
-    // 查询分类下的书签数量
-    long countByCategoryId(Long categoryId);
+    // 加行锁读取书签，修改分类或删除前使用，保证并发修改时计数增减以实际的原分类为准
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bookmark b WHERE b.id = :id AND b.userId = :userId")
+    Optional<Bookmark> findByIdAndUserIdForUpdate(@Param("id") Long id, @Param("userId") Long userId);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
 
     // 查询用户的书签数量
     long countByUserId(Long userId);
 
-    // 获取分类下的所有书签
-    List<Bookmark> findByUserIdAndCategoryIdOrderBySortOrderAsc(Long userId, Long categoryId);
+    // 统计属于用户的书签ID数量（批量操作前校验归属）
+    @Query("SELECT COUNT(b) FROM Bookmark b WHERE b.userId = :userId AND b.id IN :ids")
+    long countByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // 按分类统计用户的书签数量（一次分组查询，走 (user_id, category_id, ...) 索引，不加载书签）
+    @Query("SELECT new com.bookmarkmanager.repository.CategoryCount(b.categoryId, COUNT(b)) FROM Bookmark b " +
+           "WHERE b.userId = :userId GROUP BY b.categoryId")
+    List<CategoryCount> countByUserIdGroupByCategoryId(@Param("userId") Long userId);
+
+    // 按站点统计用户的书签数量，书签最多的在前（在 (user_id, host) 索引上分组，不读书签行）
+    @Query("SELECT new com.bookmarkmanager.repository.DomainCount(b.host, COUNT(b)) FROM Bookmark b " +
+           "WHERE b.userId = :userId AND b.host IS NOT NULL GROUP BY b.host ORDER BY COUNT(b) DESC, b.host ASC")
+    List<DomainCount> countByUserIdGroupByHost(@Param("userId") Long userId, Pageable pageable);
 
-    // 获取用户的所有书签（用于导出）
+    // 流式读取 ID 不超过 maxId 的所有书签的主机名（重建全站站点草图），需在事务内消费并关闭
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.host FROM Bookmark b WHERE b.host IS NOT NULL AND b.id <= :maxId")
+    Stream<String> streamHostsUpTo(@Param("maxId") Long maxId);
+
+    // 当前最大书签ID（重建草图的高水位）
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Bookmark b")
+    Long findMaxId();
+
+    // 统计用户在某时间之后创建的书签数量（走 (user_id, created_at) 索引）
+    long countByUserIdAndCreatedAtGreaterThanEqual(Long userId, LocalDateTime createdAt);
+
+    // 获取用户的所有书签（加载搜索索引）
     List<Bookmark> findByUserIdOrderBySortOrderAsc(Long userId);
 
     // 获取最大排序号
@@ -63,16 +233,20 @@ public interface BookmarkRepository extends JpaRepository<Bookmark, Long> {
     @Query("DELETE FROM Bookmark b WHERE b.id IN :ids AND b.userId = :userId")
     void deleteByIdsAndUserId(@Param("ids") List<Long> ids, @Param("userId") Long userId);
 
-    // 将分类下的书签设为未分类
+    // 将分类下的书签设为未分类，同时更新 updated_at 让增量同步取到；返回更新的书签数
     @Modifying
-    @Query("UPDATE Bookmark b SET b.categoryId = null WHERE b.categoryId = :categoryId")
-    void clearCategoryId(@Param("categoryId") Long categoryId);
-
-    // 检查URL是否已存在
-    boolean existsByUrlAndUserId(String url, Long userId);
+    @Query("UPDATE Bookmark b SET b.categoryId = null, b.updatedAt = :now WHERE b.categoryId = :categoryId")
+    int clearCategoryId(@Param("categoryId") Long categoryId, @Param("now") LocalDateTime now);
 
-    // 删除用户的所有书签
+    // 将分类下的书签移到另一分类；返回更新的书签数
     @Modifying
-    @Query("DELETE FROM Bookmark b WHERE b.userId = :userId")
-    void deleteAllByUserId(@Param("userId") Long userId);
+    @Query("UPDATE Bookmark b SET b.categoryId = :targetId, b.updatedAt = :now WHERE b.categoryId = :categoryId")
+    int moveCategory(@Param("categoryId") Long categoryId, @Param("targetId") Long targetId,
+                     @Param("now") LocalDateTime now);
+
+    // 增量同步：updated_at 不早于 since 的书签，按更新时间升序（走 (user_id, updated_at) 索引）
+    @Query("SELECT " + RESPONSE_COLUMNS + " FROM Bookmark b LEFT JOIN Category c ON c.id = b.categoryId " +
+           "WHERE b.userId = :userId AND b.updatedAt >= :since ORDER BY b.updatedAt ASC, b.id ASC")
+    List<BookmarkResponse> findChangedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                            Pageable pageable);
 }
@@ -0,0 +1,38 @@
+package com.bookmarkmanager.repository;
+
+import com.bookmarkmanager.util.LongHashSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 书签数据访问层（JDBC 批量操作）
+ */
+public interface BookmarkRepositoryCustom {
+
+    /**
+     * 批量更新排序号（书签ID -> 排序号），一次 JDBC batch 提交
+     */
+    void batchUpdateSortOrders(Long userId, Map<Long, Integer> sortOrders);
+
+    /**
+     * 删除用户的最多 limit 个书签，返回实际删除数；没有外层事务时每次调用单独提交
+     */
+    int deleteChunkByUserId(Long userId, int limit);
+
+    /**
+     * 批量累加访问次数并合并 frecency 得分，一次 JDBC batch 提交
+     */
+    void batchRecordVisits(List<VisitDelta> deltas);
+
+    /**
+     * 一次查询读出用户所有书签的 url_hash，供导入时在内存中查重
+     */
+    LongHashSet findUrlHashesByUserId(Long userId);
+
+    /**
+     * 锁定用户的指定书签，返回实际锁住的ID和按分类的计数，批量删除前调用
+     */
+    LockedBookmarks lockAndCountByCategory(Long userId, Collection<Long> ids);
+}
@@ -0,0 +1,82 @@
+package com.bookmarkmanager.repository;
+
+import com.bookmarkmanager.util.LongHashSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 书签数据访问层 JDBC 批量操作实现
+ */
+@RequiredArgsConstructor
+public class BookmarkRepositoryImpl implements BookmarkRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchUpdateSortOrders(Long userId, Map<Long, Integer> sortOrders) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(sortOrders.size());
+        sortOrders.forEach((id, sortOrder) -> args.add(new Object[]{sortOrder, now, id, userId}));
+        jdbcTemplate.batchUpdate("UPDATE bookmarks SET sort_order = ?, updated_at = ? WHERE id = ? AND user_id = ?", args);
+    }
+
+    @Override
+    public int deleteChunkByUserId(Long userId, int limit) {
+        return jdbcTemplate.update("DELETE FROM bookmarks WHERE user_id = ? LIMIT ?", userId, limit);
+    }
+
+    @Override
+    public void batchRecordVisits(List<VisitDelta> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (VisitDelta delta : deltas) {
+            Timestamp visitedAt = Timestamp.valueOf(delta.lastVisitedAt());
+            args.add(new Object[]{delta.visits(), visitedAt, visitedAt,
+                    delta.score(), delta.score(), delta.score(), delta.id()});
+        }
+        // frecency = ln(e^frecency + e^score)，按 max + ln(1 + e^-|差值|) 计算避免溢出；不改 updated_at
+        jdbcTemplate.batchUpdate("UPDATE bookmarks SET visit_count = visit_count + ?, " +
+                "last_visited_at = GREATEST(COALESCE(last_visited_at, ?), ?), " +
+                "frecency = CASE WHEN frecency IS NULL THEN ? " +
+                "ELSE GREATEST(frecency, ?) + LN(1 + EXP(-ABS(frecency - ?))) END " +
+                "WHERE id = ?", args);
+    }
+
+    @Override
+    public LongHashSet findUrlHashesByUserId(Long userId) {
+        LongHashSet hashes = new LongHashSet();
+        jdbcTemplate.query("SELECT url_hash FROM bookmarks WHERE user_id = ? AND url_hash IS NOT NULL",
+                rs -> {
+                    hashes.add(rs.getLong(1));
+                }, userId);
+        return hashes;
+    }
+
+    @Override
+    public LockedBookmarks lockAndCountByCategory(Long userId, Collection<Long> ids) {
+        List<Long> locked = new ArrayList<>(ids.size());
+        Map<Long, Long> counts = new HashMap<>();
+        if (ids.isEmpty()) {
+            return new LockedBookmarks(locked, counts);
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(userId);
+        args.addAll(ids);
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.query("SELECT id, category_id FROM bookmarks WHERE user_id = ? AND id IN (" + placeholders + ") " +
+                "FOR UPDATE", rs -> {
+                    locked.add(rs.getLong(1));
+                    long categoryId = rs.getLong(2);
+                    counts.merge(rs.wasNull() ? null : categoryId, 1L, Long::sum);
+                }, args.toArray());
+        return new LockedBookmarks(locked, counts);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bookmarkmanager.repository;
+
+/**
+ * 分类书签数投影：按 category_id 分组计数的一行，categoryId 为空表示未分类
+ */
+public record CategoryCount(Long categoryId, Long count) {
+}
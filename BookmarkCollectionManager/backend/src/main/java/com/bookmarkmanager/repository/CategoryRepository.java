@@ -1,12 +1,16 @@
 package com.bookmarkmanager.repository;
 
+import com.bookmarkmanager.dto.category.CategoryResponse;
 import com.bookmarkmanager.entity.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,19 +18,59 @@ import java.util.Optional;
  * 分类数据访问层
  */
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
 
     List<Category> findByUserIdOrderBySortOrderAsc(Long userId);
 
+    // 分类列表响应：左连接书签按分类分组计数，一条语句查出，不加载实体，书签数不依赖计数列
+    @Query("SELECT new com.bookmarkmanager.dto.category.CategoryResponse(c.id, c.name, c.icon, " +
+           "CAST(COUNT(b.id) AS Integer), c.sortOrder, c.createdAt) FROM Category c " +
+           "LEFT JOIN Bookmark b ON b.categoryId = c.id " +
+           "WHERE c.userId = :userId " +
+           "GROUP BY c.id, c.name, c.icon, c.sortOrder, c.createdAt " +
+           "ORDER BY c.sortOrder ASC")
+    List<CategoryResponse> findResponsesByUserId(@Param("userId") Long userId);
+
     Optional<Category> findByIdAndUserId(Long id, Long userId);
 
+    // 增量同步：updated_at 不早于 since 的分类
+    List<Category> findByUserIdAndUpdatedAtGreaterThanEqualOrderBySortOrderAsc(Long userId, LocalDateTime since);
+
+    long countByUserId(Long userId);
+
     boolean existsByNameAndUserId(String name, Long userId);
 
     boolean existsByNameAndUserIdAndIdNot(String name, Long userId, Long id);
 
+    // 统计属于用户的分类ID数量（批量操作前校验归属）
+    @Query("SELECT COUNT(c) FROM Category c WHERE c.userId = :userId AND c.id IN :ids")
+    long countByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
     @Query("SELECT COALESCE(MAX(c.sortOrder), 0) FROM Category c WHERE c.userId = :userId")
     Integer findMaxSortOrderByUserId(@Param("userId") Long userId);
 
+    // 排序键：取某位置之后的分类（升序）
+    @Query("SELECT new com.bookmarkmanager.repository.SortKey(c.id, c.sortOrder) FROM Category c " +
+           "WHERE c.userId = :userId AND c.id <> :excludeId AND " +
+           "c.sortOrder >= :sortOrder AND (c.sortOrder > :sortOrder OR c.id > :id) " +
+           "ORDER BY c.sortOrder ASC, c.id ASC")
+    List<SortKey> findSortKeysAfter(@Param("userId") Long userId,
+                                    @Param("sortOrder") Integer sortOrder,
+                                    @Param("id") Long id,
+                                    @Param("excludeId") Long excludeId,
+                                    Pageable pageable);
+
+    // 排序键：取某位置之前的分类（降序）
+    @Query("SELECT new com.bookmarkmanager.repository.SortKey(c.id, c.sortOrder) FROM Category c " +
+           "WHERE c.userId = :userId AND c.id <> :excludeId AND " +
+           "c.sortOrder <= :sortOrder AND (c.sortOrder < :sortOrder OR c.id < :id) " +
+           "ORDER BY c.sortOrder DESC, c.id DESC")
+    List<SortKey> findSortKeysBefore(@Param("userId") Long userId,
+                                     @Param("sortOrder") Integer sortOrder,
+                                     @Param("id") Long id,
+                                     @Param("excludeId") Long excludeId,
+                                     Pageable pageable);
+
     // 根据名称和用户ID查找分类
     Category findByNameAndUserId(String name, Long userId);
 
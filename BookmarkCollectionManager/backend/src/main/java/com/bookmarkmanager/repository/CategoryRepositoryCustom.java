@@ -0,0 +1,29 @@
+package com.bookmarkmanager.repository;
+
+import java.util.Map;
+
+/**
+ * 分类数据访问层（JDBC 批量操作）
+ */
+public interface CategoryRepositoryCustom {
+
+    /**
+     * 批量更新排序号（分类ID -> 排序号），一次 JDBC batch 提交
+     */
+    void batchUpdateSortOrders(Long userId, Map<Long, Integer> sortOrders);
+
+    /**
+     * 删除用户的最多 limit 个分类，返回实际删除数；没有外层事务时每次调用单独提交
+     */
+    int deleteChunkByUserId(Long userId, int limit);
+
+    /**
+     * 批量累加分类的书签数（分类ID -> 增量），按分类ID顺序更新，一次 JDBC batch 提交
+     */
+    void addBookmarkCounts(Map<Long, Long> deltas);
+
+    /**
+     * 批量覆盖分类的书签数（分类ID -> 书签数），一次 JDBC batch 提交
+     */
+    void setBookmarkCounts(Map<Long, Long> counts);
+}
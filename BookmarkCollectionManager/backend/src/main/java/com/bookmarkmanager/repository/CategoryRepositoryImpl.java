@@ -0,0 +1,48 @@
+package com.bookmarkmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 分类数据访问层 JDBC 批量操作实现
+ */
+@RequiredArgsConstructor
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchUpdateSortOrders(Long userId, Map<Long, Integer> sortOrders) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(sortOrders.size());
+        sortOrders.forEach((id, sortOrder) -> args.add(new Object[]{sortOrder, now, id, userId}));
+        jdbcTemplate.batchUpdate("UPDATE categories SET sort_order = ?, updated_at = ? WHERE id = ? AND user_id = ?", args);
+    }
+
+    @Override
+    public int deleteChunkByUserId(Long userId, int limit) {
+        return jdbcTemplate.update("DELETE FROM categories WHERE user_id = ? LIMIT ?", userId, limit);
+    }
+
+    @Override
+    public void addBookmarkCounts(Map<Long, Long> deltas) {
+        // 固定按ID顺序加锁，避免并发事务交叉更新多个分类时死锁
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((id, delta) -> args.add(new Object[]{delta, id}));
+        jdbcTemplate.batchUpdate("UPDATE categories SET bookmark_count = bookmark_count + ? WHERE id = ?", args);
+    }
+
+    @Override
+    public void setBookmarkCounts(Map<Long, Long> counts) {
+        List<Object[]> args = new ArrayList<>(counts.size());
+        new TreeMap<>(counts).forEach((id, count) -> args.add(new Object[]{count, id}));
+        jdbcTemplate.batchUpdate("UPDATE categories SET bookmark_count = ? WHERE id = ?", args);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bookmarkmanager.repository;
+
+/**
+ * 站点书签数投影：按 host 分组计数的一行
+ */
+public record DomainCount(String host, Long count) {
+}
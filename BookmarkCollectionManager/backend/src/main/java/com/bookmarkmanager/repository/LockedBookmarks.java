@@ -0,0 +1,13 @@
+package com.bookmarkmanager.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量删除前锁定的书签
+ *
+ * @param ids              实际存在且属于该用户的书签ID
+ * @param countsByCategory 分类ID -> 书签数，未分类的键为 null
+ */
+public record LockedBookmarks(List<Long> ids, Map<Long, Long> countsByCategory) {
+}
@@ -0,0 +1,7 @@
+package com.bookmarkmanager.repository;
+
+/**
+ * 排序键投影：按 (sortOrder, id) 排序的列表中一行的位置
+ */
+public record SortKey(Long id, Integer sortOrder) {
+}
@@ -0,0 +1,31 @@
+package com.bookmarkmanager.repository;
+
+import com.bookmarkmanager.entity.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 删除墓碑数据访问层
+ */
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long>, SyncTombstoneRepositoryCustom {
+
+    // 增量同步：deleted_at 不早于 since 的墓碑
+    List<SyncTombstone> findByUserIdAndDeletedAtGreaterThanEqual(Long userId, LocalDateTime since);
+
+    // 清理超过保留期的墓碑
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.deletedAt < :threshold")
+    int deleteByDeletedAtBefore(@Param("threshold") LocalDateTime threshold);
+
+    // 删除用户的所有墓碑
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.userId = :userId")
+    void deleteAllByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,14 @@
+package com.bookmarkmanager.repository;
+
+import java.util.Collection;
+
+/**
+ * 删除墓碑数据访问层（JDBC 批量操作）
+ */
+public interface SyncTombstoneRepositoryCustom {
+
+    /**
+     * 批量写入同一类型的删除墓碑，一次 JDBC batch 提交
+     */
+    void batchInsert(Long userId, String entityType, Collection<Long> entityIds);
+}
@@ -0,0 +1,30 @@
+package com.bookmarkmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 删除墓碑数据访问层 JDBC 批量操作实现
+ */
+@RequiredArgsConstructor
+public class SyncTombstoneRepositoryImpl implements SyncTombstoneRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(Long userId, String entityType, Collection<Long> entityIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(entityIds.size());
+        for (Long entityId : entityIds) {
+            args.add(new Object[]{userId, entityType, entityId, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sync_tombstones (user_id, entity_type, entity_id, deleted_at) " +
+                "VALUES (?, ?, ?, ?)", args);
+    }
+}
@@ -0,0 +1,13 @@
+package com.bookmarkmanager.repository;
+
+import com.bookmarkmanager.entity.UserBookmarkCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 用户书签计数数据访问层
+ */
+@Repository
+public interface UserBookmarkCountRepository extends JpaRepository<UserBookmarkCount, Long>,
+        UserBookmarkCountRepositoryCustom {
+}
@@ -0,0 +1,35 @@
+package com.bookmarkmanager.repository;
+
+import java.util.List;
+
+/**
+ * 用户书签计数数据访问层（JDBC 操作）
+ */
+public interface UserBookmarkCountRepositoryCustom {
+
+    /**
+     * 累加用户的书签总数和未分类数，计数行不存在时创建
+     */
+    void addCounts(Long userId, long total, long uncategorized);
+
+    /**
+     * 锁定用户的计数行（不存在时先创建），返回 [总数, 未分类数]；校正计数前调用，阻塞并发的计数更新
+     */
+    long[] lockCounts(Long userId);
+
+    /**
+     * 覆盖用户的书签总数和未分类数
+     */
+    void setCounts(Long userId, long total, long uncategorized);
+
+    /**
+     * 活动日汇总还没有回填历史数据的用户
+     */
+    List<Long> findUserIdsPendingActivityBackfill();
+
+    /**
+     * 标记用户的活动日汇总已回填，返回是否由本次调用标记（已标记过返回 false）；
+     * 标记会锁住用户的计数行直到事务结束，期间该用户的书签写操作等待
+     */
+    boolean markActivityBackfilled(Long userId);
+}
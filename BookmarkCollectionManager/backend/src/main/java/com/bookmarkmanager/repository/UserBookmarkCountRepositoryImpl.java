@@ -0,0 +1,57 @@
+package com.bookmarkmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * 用户书签计数数据访问层 JDBC 实现
+ */
+@RequiredArgsConstructor
+public class UserBookmarkCountRepositoryImpl implements UserBookmarkCountRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addCounts(Long userId, long total, long uncategorized) {
+        jdbcTemplate.update("INSERT INTO user_bookmark_counts (user_id, total_count, uncategorized_count) " +
+                "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                "total_count = total_count + ?, uncategorized_count = uncategorized_count + ?",
+                userId, total, uncategorized, total, uncategorized);
+    }
+
+    @Override
+    public long[] lockCounts(Long userId) {
+        List<long[]> rows = selectForUpdate(userId);
+        if (rows.isEmpty()) {
+            jdbcTemplate.update("INSERT IGNORE INTO user_bookmark_counts (user_id) VALUES (?)", userId);
+            rows = selectForUpdate(userId);
+        }
+        return rows.get(0);
+    }
+
+    private List<long[]> selectForUpdate(Long userId) {
+        return jdbcTemplate.query("SELECT total_count, uncategorized_count FROM user_bookmark_counts " +
+                "WHERE user_id = ? FOR UPDATE",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, userId);
+    }
+
+    @Override
+    public void setCounts(Long userId, long total, long uncategorized) {
+        jdbcTemplate.update("UPDATE user_bookmark_counts SET total_count = ?, uncategorized_count = ? WHERE user_id = ?",
+                total, uncategorized, userId);
+    }
+
+    @Override
+    public List<Long> findUserIdsPendingActivityBackfill() {
+        return jdbcTemplate.queryForList("SELECT user_id FROM user_bookmark_counts WHERE activity_backfilled = FALSE",
+                Long.class);
+    }
+
+    @Override
+    public boolean markActivityBackfilled(Long userId) {
+        return jdbcTemplate.update("UPDATE user_bookmark_counts SET activity_backfilled = TRUE " +
+                "WHERE user_id = ? AND activity_backfilled = FALSE", userId) == 1;
+    }
+}
@@ -2,8 +2,10 @@ package com.bookmarkmanager.repository;
 
 import com.bookmarkmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,4 +19,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    // 已注销但数据尚未清理完的用户
+    @Query("SELECT u.id FROM User u WHERE u.deletedAt IS NOT NULL")
+    List<Long> findDeletedUserIds();
+
+    // 用户存在且未注销
+    boolean existsByIdAndDeletedAtIsNull(Long id);
+
+    // 未注销的用户
+    @Query("SELECT u.id FROM User u WHERE u.deletedAt IS NULL")
+    List<Long> findActiveUserIds();
 }
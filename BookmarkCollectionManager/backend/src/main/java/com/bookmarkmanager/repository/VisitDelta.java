@@ -0,0 +1,14 @@
+package com.bookmarkmanager.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一个书签在一次刷写周期内累积的访问增量
+ *
+ * @param id            书签ID
+ * @param visits        新增访问次数
+ * @param lastVisitedAt 本周期内最近一次访问时间
+ * @param score         本周期访问贡献的对数得分，与已有 frecency 做 log-sum-exp 合并
+ */
+public record VisitDelta(Long id, long visits, LocalDateTime lastVisitedAt, double score) {
+}
@@ -0,0 +1,308 @@
+package com.bookmarkmanager.search;
+
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.entity.Bookmark;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 内存倒排索引搜索后端（默认）
+ * <p>
+ * 每个用户一份索引，首次搜索时从数据库懒加载，之后由写操作回调增量维护；
+ * 回调在事务提交后才生效，回滚不会污染索引。索引用户数超过上限时按 LRU 淘汰。
+ * 词项按前缀匹配（"git" 可命中 "github"），多个词项之间为 AND 关系；
+ * 词项查不到任何结果时才退回到对标题和描述做子串扫描（"github" 可命中 "mygithubrepo"）。
+ * 有词项结果时不再合并子串匹配，结果可能少于 like 后端：这是有意的取舍，合并就要每次扫描全部书签，失去索引的意义。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bookmark.search.backend", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexSearchBackend implements SearchBackend {
+
+    private final BookmarkRepository bookmarkRepository;
+
+    private final Map<Long, UserIndex> indexes;
+
+    public InvertedIndexSearchBackend(BookmarkRepository bookmarkRepository,
+                                      @Value("${bookmark.search.index.max-users:200}") int maxUsers) {
+        this.bookmarkRepository = bookmarkRepository;
+        this.indexes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserIndex> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    @Override
+    public Slice<BookmarkResponse> search(Long userId, Long categoryId, String keyword, Pageable pageable) {
+        List<Doc> matched = loadIndex(userId).match(keyword, categoryId);
+        int from = (int) Math.min(pageable.getOffset(), matched.size());
+        int to = Math.min(from + pageable.getPageSize(), matched.size());
+        return new SliceImpl<>(fetchRows(userId, matched.subList(from, to)), pageable, to < matched.size());
+    }
+
+    @Override
+    public long count(Long userId, Long categoryId, String keyword) {
+        return loadIndex(userId).match(keyword, categoryId).size();
+    }
+
+    @Override
+    public List<BookmarkResponse> searchAfter(Long userId, Long categoryId, String keyword,
+                                              int afterSortOrder, long afterId, int limit) {
+        List<Doc> matched = loadIndex(userId).match(keyword, categoryId);
+        // 结果已按 (sortOrder, id) 排序，二分定位游标之后的第一条
+        int from = Collections.binarySearch(matched, new Doc(afterId, null, afterSortOrder, Set.of(), ""), UserIndex.ORDER);
+        from = from >= 0 ? from + 1 : -from - 1;
+        int to = Math.min(from + limit, matched.size());
+        return fetchRows(userId, matched.subList(from, to));
+    }
+
+    private UserIndex loadIndex(Long userId) {
+        UserIndex index = indexes.computeIfAbsent(userId, id -> new UserIndex());
+        index.ensureLoaded(() -> bookmarkRepository.findByUserIdOrderBySortOrderAsc(userId));
+        return index;
+    }
+
+    /**
+     * 只回表取需要返回的书签，并按索引给出的顺序排列
+     */
+    private List<BookmarkResponse> fetchRows(Long userId, List<Doc> docs) {
+        if (docs.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = docs.stream().map(Doc::id).collect(Collectors.toList());
+        Map<Long, BookmarkResponse> rows = bookmarkRepository.findResponsesByUserIdAndIdIn(userId, ids).stream()
+                .collect(Collectors.toMap(BookmarkResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void onBookmarkSaved(Bookmark bookmark) {
+        Doc doc = Doc.of(bookmark);
+        TransactionHooks.afterCommit(() -> withIndex(bookmark.getUserId(), index -> index.put(doc)));
+    }
+
+    @Override
+    public void onBookmarksDeleted(Long userId, Collection<Long> bookmarkIds) {
+        List<Long> ids = new ArrayList<>(bookmarkIds);
+        TransactionHooks.afterCommit(() -> withIndex(userId, index -> index.remove(ids)));
+    }
+
+    @Override
+    public void onSortOrdersChanged(Long userId, Map<Long, Integer> sortOrders) {
+        Map<Long, Integer> changes = new HashMap<>(sortOrders);
+        TransactionHooks.afterCommit(() -> withIndex(userId, index -> index.updateSortOrders(changes)));
+    }
+
+    @Override
+    public void onUserDataChanged(Long userId) {
+        TransactionHooks.afterCommit(() -> indexes.remove(userId));
+    }
+
+    private void withIndex(Long userId, Consumer<UserIndex> action) {
+        UserIndex index = indexes.get(userId);
+        if (index != null) {
+            action.accept(index);
+        }
+    }
+
+    /**
+     * 索引中的文档，只保存过滤、排序和子串扫描需要的字段
+     */
+    private record Doc(long id, Long categoryId, int sortOrder, Set<String> tokens, String text) {
+
+        static Doc of(Bookmark bookmark) {
+            Set<String> tokens = new HashSet<>();
+            tokens.addAll(SearchTokenizer.indexTokens(bookmark.getTitle()));
+            tokens.addAll(SearchTokenizer.indexTokens(bookmark.getDescription()));
+            tokens.addAll(SearchTokenizer.indexTokens(hostOf(bookmark.getUrl())));
+            int sortOrder = bookmark.getSortOrder() != null ? bookmark.getSortOrder() : 0;
+            return new Doc(bookmark.getId(), bookmark.getCategoryId(), sortOrder, tokens,
+                    lower(bookmark.getTitle()) + '\n' + lower(bookmark.getDescription()));
+        }
+
+        Doc withSortOrder(int newSortOrder) {
+            return new Doc(id, categoryId, newSortOrder, tokens, text);
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : "";
+        }
+
+        private static String hostOf(String url) {
+            try {
+                return new java.net.URL(url).getHost();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 单个用户的倒排索引：词项 -> 书签ID 集合
+     */
+    private static class UserIndex {
+
+        private static final Comparator<Doc> ORDER =
+                Comparator.comparingInt(Doc::sortOrder).thenComparingLong(Doc::id);
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+        private boolean loaded;
+
+        void ensureLoaded(Supplier<List<Bookmark>> loader) {
+            lock.readLock().lock();
+            try {
+                if (loaded) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    long start = System.currentTimeMillis();
+                    List<Bookmark> bookmarks = loader.get();
+                    bookmarks.forEach(b -> putLocked(Doc.of(b)));
+                    loaded = true;
+                    log.debug("构建搜索索引: {} 条书签, 耗时 {} ms", bookmarks.size(), System.currentTimeMillis() - start);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Doc> match(String keyword, Long categoryId) {
+            lock.readLock().lock();
+            try {
+                List<Doc> matched = matchTerms(SearchTokenizer.queryTokens(keyword), categoryId);
+                if (matched.isEmpty()) {
+                    matched = matchSubstring(keyword.trim().toLowerCase(Locale.ROOT), categoryId);
+                }
+                return matched;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private List<Doc> matchTerms(List<String> terms, Long categoryId) {
+            if (terms.isEmpty()) {
+                return List.of();
+            }
+            // 每个词项按前缀展开，再从最小的结果集开始求交
+            List<Set<Long>> sets = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Set<Long> ids = new HashSet<>();
+                postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                        .values()
+                        .forEach(ids::addAll);
+                if (ids.isEmpty()) {
+                    return List.of();
+                }
+                sets.add(ids);
+            }
+            sets.sort(Comparator.comparingInt(Set::size));
+            Set<Long> result = sets.get(0);
+            for (int i = 1; i < sets.size(); i++) {
+                result.retainAll(sets.get(i));
+            }
+
+            return result.stream()
+                    .map(docs::get)
+                    .filter(doc -> doc != null && inCategory(doc, categoryId))
+                    .sorted(ORDER)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * 词中间的片段（如 "github" 之于 "mygithubrepo"）不在前缀展开范围内，逐条扫描该用户的书签
+         */
+        private List<Doc> matchSubstring(String needle, Long categoryId) {
+            if (needle.isEmpty()) {
+                return List.of();
+            }
+            return docs.values().stream()
+                    .filter(doc -> inCategory(doc, categoryId) && doc.text().contains(needle))
+                    .sorted(ORDER)
+                    .collect(Collectors.toList());
+        }
+
+        private static boolean inCategory(Doc doc, Long categoryId) {
+            return categoryId == null || categoryId.equals(doc.categoryId());
+        }
+
+        void put(Doc doc) {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    putLocked(doc);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Collection<Long> ids) {
+            lock.writeLock().lock();
+            try {
+                ids.forEach(this::removeLocked);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void updateSortOrders(Map<Long, Integer> sortOrders) {
+            lock.writeLock().lock();
+            try {
+                sortOrders.forEach((id, sortOrder) -> docs.computeIfPresent(id, (k, doc) -> doc.withSortOrder(sortOrder)));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void putLocked(Doc doc) {
+            removeLocked(doc.id());
+            docs.put(doc.id(), doc);
+            for (String token : doc.tokens()) {
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(doc.id());
+            }
+        }
+
+        private void removeLocked(Long id) {
+            Doc old = docs.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (String token : old.tokens()) {
+                Set<Long> ids = postings.get(token);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bookmarkmanager.search;
+
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 基于数据库 LIKE 模糊匹配的搜索后端
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "bookmark.search.backend", havingValue = "like")
+public class LikeSearchBackend implements SearchBackend {
+
+    private final BookmarkRepository bookmarkRepository;
+
+    @Override
+    public Slice<BookmarkResponse> search(Long userId, Long categoryId, String keyword, Pageable pageable) {
+        if (categoryId != null) {
+            return bookmarkRepository.searchByCategoryAndKeyword(userId, categoryId, keyword, pageable);
+        }
+        return bookmarkRepository.searchByKeyword(userId, keyword, pageable);
+    }
+
+    @Override
+    public long count(Long userId, Long categoryId, String keyword) {
+        if (categoryId != null) {
+            return bookmarkRepository.countByCategoryAndKeyword(userId, categoryId, keyword);
+        }
+        return bookmarkRepository.countByKeyword(userId, keyword);
+    }
+
+    @Override
+    public List<BookmarkResponse> searchAfter(Long userId, Long categoryId, String keyword,
+                                              int afterSortOrder, long afterId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        if (categoryId != null) {
+            return bookmarkRepository.searchByCategoryAndKeywordAfterCursor(
+                    userId, categoryId, keyword, afterSortOrder, afterId, pageable);
+        }
+        return bookmarkRepository.searchByKeywordAfterCursor(userId, keyword, afterSortOrder, afterId, pageable);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bookmarkmanager.search;
+
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.entity.Bookmark;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 书签搜索后端
+ * <p>
+ * 通过 bookmark.search.backend 选择实现：index（默认，内存倒排索引）或 like（数据库模糊匹配）。
+ * 写操作通过 on* 回调通知后端，不维护索引的实现可以忽略这些回调。
+ */
+public interface SearchBackend {
+
+    /**
+     * 按关键词搜索书签，categoryId 为空时不限分类，结果按排序号升序；不统计总数
+     */
+    Slice<BookmarkResponse> search(Long userId, Long categoryId, String keyword, Pageable pageable);
+
+    /**
+     * 统计关键词匹配的书签数量
+     */
+    long count(Long userId, Long categoryId, String keyword);
+
+    /**
+     * 按关键词做游标分页：返回排序位置在 (afterSortOrder, afterId) 之后的最多 limit 条，不统计总数
+     */
+    List<BookmarkResponse> searchAfter(Long userId, Long categoryId, String keyword,
+                                       int afterSortOrder, long afterId, int limit);
+
+    /**
+     * 书签新增或修改
+     */
+    default void onBookmarkSaved(Bookmark bookmark) {
+    }
+
+    /**
+     * 书签被删除
+     */
+    default void onBookmarksDeleted(Long userId, Collection<Long> bookmarkIds) {
+    }
+
+    /**
+     * 书签排序号变化（书签ID -> 新排序号）
+     */
+    default void onSortOrdersChanged(Long userId, Map<Long, Integer> sortOrders) {
+    }
+
+    /**
+     * 用户数据发生批量变化（导入、清空、删除分类等），需要整体重建
+     */
+    default void onUserDataChanged(Long userId) {
+    }
+}
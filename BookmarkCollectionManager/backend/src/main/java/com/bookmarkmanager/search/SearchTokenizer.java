@@ -0,0 +1,96 @@
+package com.bookmarkmanager.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 搜索分词器
+ * <p>
+ * 英文和数字按连续字母数字切词并转小写；中日韩文字按二元组（bigram）切分，
+ * 建索引时额外保留每段的最后一个字，使单字查询也能命中。
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 建索引用分词
+     */
+    public static Set<String> indexTokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(text, tokens, true);
+        return tokens;
+    }
+
+    /**
+     * 查询用分词，所有词项之间为 AND 关系
+     */
+    public static List<String> queryTokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(text, tokens, false);
+        return new ArrayList<>(tokens);
+    }
+
+    private static void tokenize(String text, Set<String> tokens, boolean indexing) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+        int i = 0;
+        while (i < lower.length()) {
+            int cp = lower.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isCjk(cp)) {
+                flushWord(word, tokens);
+                cjk.appendCodePoint(cp);
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjk, tokens, indexing);
+                word.appendCodePoint(cp);
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjk, tokens, indexing);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjk, tokens, indexing);
+    }
+
+    private static void flushWord(StringBuilder word, Set<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(StringBuilder run, Set<String> tokens, boolean indexing) {
+        if (run.length() == 0) {
+            return;
+        }
+        int[] cps = run.codePoints().toArray();
+        if (cps.length == 1) {
+            tokens.add(new String(cps, 0, 1));
+        } else {
+            for (int k = 0; k + 1 < cps.length; k++) {
+                tokens.add(new String(cps, k, 2));
+            }
+            if (indexing) {
+                tokens.add(new String(cps, cps.length - 1, 1));
+            }
+        }
+        run.setLength(0);
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookmarkmanager.security;
+
+import com.bookmarkmanager.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 管理员名单
+ * <p>
+ * 没有角色表，管理员按用户ID配置（bookmark.admin.user-ids，逗号分隔）；用户名可以修改，不用于判断权限。
+ */
+@Component
+public class AdminUsers {
+
+    private final Set<Long> userIds;
+
+    public AdminUsers(@Value("${bookmark.admin.user-ids:}") List<Long> userIds) {
+        this.userIds = Set.copyOf(userIds);
+    }
+
+    /**
+     * 非管理员时抛出 403
+     */
+    public void check(Long userId) {
+        if (!userIds.contains(userId)) {
+            throw new BusinessException(403, "无权访问");
+        }
+    }
+}
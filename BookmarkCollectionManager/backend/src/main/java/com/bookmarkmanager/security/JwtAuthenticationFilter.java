@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.bookmarkmanager.service.AccountDeletionJobs;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,7 +22,11 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // 已注销账户的 Token 只允许访问的路径
+    private static final String ACCOUNT_DELETION_PATH = "/api/auth/account/deletion";
+
     private final JwtUtils jwtUtils;
+    private final AccountDeletionJobs accountDeletionJobs;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -34,11 +39,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 Long userId = jwtUtils.getUserIdFromToken(token);
                 String username = jwtUtils.getUsernameFromToken(token);
 
-                // 创建认证对象，将 userId 存储在 principal 中
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                // 已注销的账户不再认证，只能查询注销进度
+                if (!accountDeletionJobs.isDeleted(userId)
+                        || ACCOUNT_DELETION_PATH.equals(request.getRequestURI())) {
+                    // 创建认证对象，将 userId 存储在 principal 中
+                    UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("无法设置用户认证", e);
@@ -47,6 +56,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 流式导出在异步分派中写响应体，分派时同样认证，否则授权过滤器拿不到用户
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,188 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.dto.data.DataClearJobResponse;
+import com.bookmarkmanager.exception.BusinessException;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.repository.CategoryRepository;
+import com.bookmarkmanager.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 账户注销任务登记表
+ * <p>
+ * 注销时只给用户打上 deleted_at 标记，数据由后台任务分批清理，每批单独提交，最后删除用户行。
+ * deleted_at 持久化在数据库中，应用启动后会为未清理完的账户重新提交任务，从剩余数据继续删除。
+ * 已注销账户的旧 Token 只能查询注销进度。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountDeletionJobs {
+
+    // 已结束任务的保留时间
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    // 账户可用状态的缓存时间，其他实例上的注销最多延迟这么久生效
+    private static final long ACTIVE_TTL_MILLIS = 30_000;
+
+    // 最多缓存的用户数，超出后清空重来
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    private final Map<Long, Job> jobsByUser = new ConcurrentHashMap<>();
+
+    // 确认可用（存在且未注销）的用户 -> 确认结果的过期时间，过期后重新查库
+    private final Map<Long, Long> activeUntil = new ConcurrentHashMap<>();
+
+    private final UserRepository userRepository;
+    private final BookmarkRepository bookmarkRepository;
+    private final CategoryRepository categoryRepository;
+    private final DataService dataService;
+
+    /**
+     * 启动后继续清理上次未完成的注销账户
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Long> userIds = userRepository.findDeletedUserIds();
+        if (!userIds.isEmpty()) {
+            log.info("继续清理 {} 个已注销账户", userIds.size());
+            userIds.forEach(this::start);
+        }
+    }
+
+    /**
+     * 提交注销清理任务，用户已有进行中的任务时直接返回该任务
+     */
+    public DataClearJobResponse start(Long userId) {
+        purgeFinished();
+        Job running = jobsByUser.get(userId);
+        if (running != null && running.finishedAt == null) {
+            return running.toResponse();
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), userId,
+                (int) bookmarkRepository.countByUserId(userId), (int) categoryRepository.countByUserId(userId));
+        boolean registered = running == null
+                ? jobsByUser.putIfAbsent(userId, job) == null
+                : jobsByUser.replace(userId, running, job);
+        if (!registered) {
+            return jobsByUser.get(userId).toResponse();
+        }
+        activeUntil.remove(userId);
+        dataService.purgeAccount(job);
+        return job.toResponse();
+    }
+
+    /**
+     * 查询用户的注销进度
+     */
+    public DataClearJobResponse get(Long userId) {
+        Job job = jobsByUser.get(userId);
+        if (job == null) {
+            throw new BusinessException(404, "任务不存在");
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * 用户是否已注销或已不存在
+     */
+    public boolean isDeleted(Long userId) {
+        if (jobsByUser.containsKey(userId)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Long until = activeUntil.get(userId);
+        if (until != null && until > now) {
+            return false;
+        }
+        // 以数据库为准：本实例没有任务记录时（任务已过保留期、其他实例注销、刚重启）也能拦住
+        if (!userRepository.existsByIdAndDeletedAtIsNull(userId)) {
+            activeUntil.remove(userId);
+            return true;
+        }
+        if (activeUntil.size() >= MAX_CACHED_USERS) {
+            activeUntil.clear();
+        }
+        activeUntil.put(userId, now + ACTIVE_TTL_MILLIS);
+        return false;
+    }
+
+    private void purgeFinished() {
+        LocalDateTime threshold = LocalDateTime.now().minus(RETENTION);
+        // 失败的任务保留，账户保持注销状态，等下次启动时重试
+        jobsByUser.values().removeIf(job -> "COMPLETED".equals(job.status) && job.finishedAt.isBefore(threshold));
+    }
+
+    /**
+     * 单个注销任务的进度，只由执行线程更新，请求线程读取
+     */
+    public static final class Job {
+
+        private final String id;
+        private final Long userId;
+        private final int totalBookmarks;
+        private final int totalCategories;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile String status = "RUNNING";
+        private volatile int deletedBookmarks;
+        private volatile int deletedCategories;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, Long userId, int totalBookmarks, int totalCategories) {
+            this.id = id;
+            this.userId = userId;
+            this.totalBookmarks = totalBookmarks;
+            this.totalCategories = totalCategories;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void bookmarksDeleted(int count) {
+            deletedBookmarks += count;
+        }
+
+        public void categoriesDeleted(int count) {
+            deletedCategories += count;
+        }
+
+        public void complete() {
+            status = "COMPLETED";
+            finishedAt = LocalDateTime.now();
+        }
+
+        public void fail(String message) {
+            error = message;
+            status = "FAILED";
+            finishedAt = LocalDateTime.now();
+        }
+
+        private DataClearJobResponse toResponse() {
+            return DataClearJobResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .totalBookmarks(totalBookmarks)
+                    .totalCategories(totalCategories)
+                    .deletedBookmarks(deletedBookmarks)
+                    .deletedCategories(deletedCategories)
+                    .error(error)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
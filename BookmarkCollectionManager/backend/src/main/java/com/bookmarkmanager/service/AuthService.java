@@ -1,6 +1,7 @@
 package com.bookmarkmanager.service;
 
 import com.bookmarkmanager.dto.auth.*;
+import com.bookmarkmanager.dto.data.DataClearJobResponse;
 import com.bookmarkmanager.entity.Bookmark;
 import com.bookmarkmanager.entity.Category;
 import com.bookmarkmanager.entity.User;
@@ -11,11 +12,15 @@ import com.bookmarkmanager.repository.CategoryRepository;
 import com.bookmarkmanager.repository.UserRepository;
 import com.bookmarkmanager.repository.UserSettingsRepository;
 import com.bookmarkmanager.security.JwtUtils;
+import com.bookmarkmanager.util.TransactionHooks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * 用户认证服务
  */
@@ -29,6 +34,8 @@ public class AuthService {
     private final BookmarkRepository bookmarkRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final AccountDeletionJobs accountDeletionJobs;
+    private final BookmarkCounters bookmarkCounters;
 
     /**
      * 用户注册
@@ -79,105 +86,102 @@ public class AuthService {
                 .userId(userId)
                 .name("技术开发")
                 .icon("💻")
-                .sortOrder(1)
+                .sortOrder(SortKeyService.GAP)
                 .build());
 
         Category toolsCategory = categoryRepository.save(Category.builder()
                 .userId(userId)
                 .name("常用工具")
                 .icon("🔧")
-                .sortOrder(2)
+                .sortOrder(2 * SortKeyService.GAP)
                 .build());
 
         Category studyCategory = categoryRepository.save(Category.builder()
                 .userId(userId)
                 .name("学习资源")
                 .icon("📚")
-                .sortOrder(3)
+                .sortOrder(3 * SortKeyService.GAP)
                 .build());
 
         Category entertainCategory = categoryRepository.save(Category.builder()
                 .userId(userId)
                 .name("休闲娱乐")
                 .icon("🎮")
-                .sortOrder(4)
-                .build());
-
-        // 创建默认书签 - 技术开发
-        bookmarkRepository.save(Bookmark.builder()
-                .userId(userId)
-                .title("GitHub")
-                .url("https://github.com")
-                .description("全球最大的代码托管平台")
-                .categoryId(techCategory.getId())
-                .sortOrder(1)
-                .build());
-
-        bookmarkRepository.save(Bookmark.builder()
-                .userId(userId)
-                .title("Stack Overflow")
-                .url("https://stackoverflow.com")
-                .description("程序员问答社区")
-                .categoryId(techCategory.getId())
-                .sortOrder(2)
-                .build());
-
-        bookmarkRepository.save(Bookmark.builder()
-                .userId(userId)
-                .title("MDN Web Docs")
-                .url("https://developer.mozilla.org")
-                .description("Web开发权威文档")
-                .categoryId(techCategory.getId())
-                .sortOrder(3)
-                .build());
-
-        // 创建默认书签 - 常用工具
-        bookmarkRepository.save(Bookmark.builder()
-                .userId(userId)
-                .title("Google")
-                .url("https://www.google.com")
-                .description("全球最大的搜索引擎")
-                .categoryId(toolsCategory.getId())
-                .sortOrder(1)
-                .build());
-
-        bookmarkRepository.save(Bookmark.builder()
-                .userId(userId)
-                .title("百度翻译")
-                .url("https://fanyi.baidu.com")
-                .description("在线翻译工具")
-                .categoryId(toolsCategory.getId())
-                .sortOrder(2)
+                .sortOrder(4 * SortKeyService.GAP)
                 .build());
 
-        // 创建默认书签 - 学习资源
-        bookmarkRepository.save(Bookmark.builder()
-                .userId(userId)
-                .title("菜鸟教程")
-                .url("https://www.runoob.com")
-                .description("编程入门学习网站")
-                .categoryId(studyCategory.getId())
-                .sortOrder(1)
-                .build());
-
-        bookmarkRepository.save(Bookmark.builder()
-                .userId(userId)
-                .title("Bilibili")
-                .url("https://www.bilibili.com")
-                .description("学习视频平台")
-                .categoryId(studyCategory.getId())
-                .sortOrder(2)
-                .build());
-
-        // 创建默认书签 - 休闲娱乐
-        bookmarkRepository.save(Bookmark.builder()
-                .userId(userId)
-                .title("豆瓣")
-                .url("https://www.douban.com")
-                .description("电影、书籍、音乐评分")
-                .categoryId(entertainCategory.getId())
-                .sortOrder(1)
-                .build());
+        // 创建默认书签
+        List<Bookmark> bookmarks = bookmarkRepository.saveAll(List.of(
+                // 创建默认书签 - 技术开发
+                Bookmark.builder()
+                        .userId(userId)
+                        .title("GitHub")
+                        .url("https://github.com")
+                        .description("全球最大的代码托管平台")
+                        .categoryId(techCategory.getId())
+                        .sortOrder(SortKeyService.GAP)
+                        .build(),
+                Bookmark.builder()
+                        .userId(userId)
+                        .title("Stack Overflow")
+                        .url("https://stackoverflow.com")
+                        .description("程序员问答社区")
+                        .categoryId(techCategory.getId())
+                        .sortOrder(2 * SortKeyService.GAP)
+                        .build(),
+                Bookmark.builder()
+                        .userId(userId)
+                        .title("MDN Web Docs")
+                        .url("https://developer.mozilla.org")
+                        .description("Web开发权威文档")
+                        .categoryId(techCategory.getId())
+                        .sortOrder(3 * SortKeyService.GAP)
+                        .build(),
+                // 创建默认书签 - 常用工具
+                Bookmark.builder()
+                        .userId(userId)
+                        .title("Google")
+                        .url("https://www.google.com")
+                        .description("全球最大的搜索引擎")
+                        .categoryId(toolsCategory.getId())
+                        .sortOrder(4 * SortKeyService.GAP)
+                        .build(),
+                Bookmark.builder()
+                        .userId(userId)
+                        .title("百度翻译")
+                        .url("https://fanyi.baidu.com")
+                        .description("在线翻译工具")
+                        .categoryId(toolsCategory.getId())
+                        .sortOrder(5 * SortKeyService.GAP)
+                        .build(),
+                // 创建默认书签 - 学习资源
+                Bookmark.builder()
+                        .userId(userId)
+                        .title("菜鸟教程")
+                        .url("https://www.runoob.com")
+                        .description("编程入门学习网站")
+                        .categoryId(studyCategory.getId())
+                        .sortOrder(6 * SortKeyService.GAP)
+                        .build(),
+                Bookmark.builder()
+                        .userId(userId)
+                        .title("Bilibili")
+                        .url("https://www.bilibili.com")
+                        .description("学习视频平台")
+                        .categoryId(studyCategory.getId())
+                        .sortOrder(7 * SortKeyService.GAP)
+                        .build(),
+                // 创建默认书签 - 休闲娱乐
+                Bookmark.builder()
+                        .userId(userId)
+                        .title("豆瓣")
+                        .url("https://www.douban.com")
+                        .description("电影、书籍、音乐评分")
+                        .categoryId(entertainCategory.getId())
+                        .sortOrder(8 * SortKeyService.GAP)
+                        .build()
+        ));
+        bookmarkCounters.added(userId, bookmarks);
     }
 
     /**
@@ -191,6 +195,10 @@ public class AuthService {
             throw new BusinessException(401, "用户名或密码错误");
         }
 
+        if (user.getDeletedAt() != null) {
+            throw new BusinessException(401, "账户已注销");
+        }
+
         String token = jwtUtils.generateToken(user.getId(), user.getUsername());
 
         return LoginResponse.builder()
@@ -313,6 +321,8 @@ public class AuthService {
 
     /**
      * 注销账户
+     * <p>
+     * 只标记注销时间并立即生效，书签、分类、设置和用户行在事务提交后由后台任务分批清理。
      */
     @Transactional
     public void deleteAccount(Long userId, String password) {
@@ -324,15 +334,18 @@ public class AuthService {
             throw new BusinessException("密码不正确");
         }
 
-        // 删除用户的所有数据
-        // 1. 删除书签
-        bookmarkRepository.deleteAllByUserId(userId);
-        // 2. 删除分类
-        categoryRepository.deleteAllByUserId(userId);
-        // 3. 删除用户设置
-        userSettingsRepository.deleteByUserId(userId);
-        // 4. 删除用户
-        userRepository.delete(user);
+        if (user.getDeletedAt() == null) {
+            user.setDeletedAt(LocalDateTime.now());
+            userRepository.save(user);
+        }
+        TransactionHooks.afterCommit(() -> accountDeletionJobs.start(userId));
+    }
+
+    /**
+     * 查询账户注销清理进度
+     */
+    public DataClearJobResponse getAccountDeletion(Long userId) {
+        return accountDeletionJobs.get(userId);
     }
 
     private UserResponse toUserResponse(User user) {
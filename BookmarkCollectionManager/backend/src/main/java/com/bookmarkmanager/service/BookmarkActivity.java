@@ -0,0 +1,93 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.entity.Bookmark;
+import com.bookmarkmanager.repository.BookmarkDailyActivityRepository;
+import com.bookmarkmanager.repository.UserBookmarkCountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 书签活动日汇总（每天新增和删除的书签数）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookmarkActivity {
+
+    private final BookmarkDailyActivityRepository bookmarkDailyActivityRepository;
+    private final UserBookmarkCountRepository userBookmarkCountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 记录新增的书签，按创建日期汇总（书签须已保存，created_at 已填充）
+     */
+    public void added(Long userId, Collection<Bookmark> bookmarks) {
+        Map<LocalDate, Long> addedByDay = new HashMap<>();
+        for (Bookmark bookmark : bookmarks) {
+            addedByDay.merge(bookmark.getCreatedAt().toLocalDate(), 1L, Long::sum);
+        }
+        // 由 BookmarkCounters 在写书签的事务中调用，已锁住用户计数行，同一用户的汇总更新依次执行
+        bookmarkDailyActivityRepository.addActivity(userId, addedByDay, Map.of());
+    }
+
+    /**
+     * 记录今天删除的书签数
+     */
+    public void deleted(Long userId, long count) {
+        if (count > 0) {
+            bookmarkDailyActivityRepository.addActivity(userId, Map.of(), Map.of(LocalDate.now(), count));
+        }
+    }
+
+    /**
+     * 启动后为还没有回填的用户按 created_at 补齐历史新增数，每个用户一个事务
+     * <p>
+     * 标记回填时锁住用户计数行，回填期间该用户的书签写操作等待，统计和增量更新不会互相覆盖；
+     * 中途停止的回填在下次启动时从未标记的用户继续；上线前删除的书签已无记录，无法回填。
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPending() {
+        List<Long> userIds = userBookmarkCountRepository.findUserIdsPendingActivityBackfill();
+        if (userIds.isEmpty()) {
+            return;
+        }
+        log.info("开始回填 {} 个用户的书签活动汇总", userIds.size());
+        int backfilled = 0;
+        for (Long userId : userIds) {
+            try {
+                Boolean done = transactionTemplate.execute(status -> {
+                    if (!userBookmarkCountRepository.markActivityBackfilled(userId)) {
+                        return false;
+                    }
+                    bookmarkDailyActivityRepository.backfillAdded(userId);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) {
+                    backfilled++;
+                }
+            } catch (RuntimeException e) {
+                log.error("回填用户 {} 的书签活动汇总失败，下次启动时重试", userId, e);
+            }
+        }
+        log.info("书签活动汇总回填完成，{} 个用户", backfilled);
+    }
+
+    /**
+     * 删除用户的所有汇总（注销账户时）
+     */
+    public void delete(Long userId) {
+        bookmarkDailyActivityRepository.deleteAllByUserId(userId);
+    }
+}
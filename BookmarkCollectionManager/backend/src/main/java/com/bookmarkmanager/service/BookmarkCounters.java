@@ -0,0 +1,215 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.entity.Bookmark;
+import com.bookmarkmanager.entity.Category;
+import com.bookmarkmanager.entity.UserBookmarkCount;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.repository.CategoryCount;
+import com.bookmarkmanager.repository.CategoryRepository;
+import com.bookmarkmanager.repository.UserBookmarkCountRepository;
+import com.bookmarkmanager.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 书签计数（分类和用户的书签数），增减方法须在写书签的同一事务中调用
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookmarkCounters {
+
+    private final BookmarkRepository bookmarkRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserBookmarkCountRepository userBookmarkCountRepository;
+    private final UserRepository userRepository;
+    private final BookmarkActivity bookmarkActivity;
+    private final DomainStatistics domainStatistics;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 按分类统计一组书签（分类ID -> 书签数，未分类的键为 null）
+     */
+    private static Map<Long, Long> countByCategory(Collection<Bookmark> bookmarks) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Bookmark bookmark : bookmarks) {
+            counts.merge(bookmark.getCategoryId(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * 新增一个书签（已保存）
+     */
+    public void added(Long userId, Bookmark bookmark) {
+        added(userId, List.of(bookmark));
+    }
+
+    /**
+     * 新增一批书签（已保存）
+     */
+    public void added(Long userId, Collection<Bookmark> bookmarks) {
+        if (apply(userId, countByCategory(bookmarks), 1) > 0) {
+            bookmarkActivity.added(userId, bookmarks);
+            domainStatistics.added(bookmarks);
+        }
+    }
+
+    /**
+     * 删除一个书签
+     */
+    public void removed(Long userId, Long categoryId) {
+        Map<Long, Long> counts = new HashMap<>();
+        counts.put(categoryId, 1L);
+        bookmarkActivity.deleted(userId, apply(userId, counts, -1));
+    }
+
+    /**
+     * 删除一批书签
+     *
+     * @param countsByCategory 分类ID -> 书签数，未分类的键为 null
+     */
+    public void removed(Long userId, Map<Long, Long> countsByCategory) {
+        bookmarkActivity.deleted(userId, apply(userId, countsByCategory, -1));
+    }
+
+    /**
+     * count 个书签从一个分类移到另一个分类（为 null 表示未分类）
+     */
+    public void moved(Long userId, Long fromCategoryId, Long toCategoryId, long count) {
+        if (Objects.equals(fromCategoryId, toCategoryId) || count == 0) {
+            return;
+        }
+        long uncategorized = (toCategoryId == null ? count : 0) - (fromCategoryId == null ? count : 0);
+        userBookmarkCountRepository.addCounts(userId, 0, uncategorized);
+
+        Map<Long, Long> deltas = new HashMap<>();
+        if (fromCategoryId != null) {
+            deltas.put(fromCategoryId, -count);
+        }
+        if (toCategoryId != null) {
+            deltas.put(toCategoryId, count);
+        }
+        categoryRepository.addBookmarkCounts(deltas);
+    }
+
+    /**
+     * 用户的计数行，没有书签时返回全为 0 的计数
+     */
+    public UserBookmarkCount find(Long userId) {
+        return userBookmarkCountRepository.findById(userId)
+                .orElseGet(() -> new UserBookmarkCount(userId, 0L, 0L));
+    }
+
+    /**
+     * 用户的书签总数
+     */
+    public long total(Long userId) {
+        return find(userId).getTotalCount();
+    }
+
+    /**
+     * 分类的书签数
+     */
+    public static long countOf(Category category) {
+        return category.getBookmarkCount() != null ? category.getBookmarkCount() : 0L;
+    }
+
+    /**
+     * 按实际 COUNT 校正用户的计数，返回被修正的计数行数
+     * <p>
+     * 先锁用户计数行再统计：已更新计数的事务先提交，之后的事务等校正提交后再在校正结果上增减，计数不会丢失。
+     */
+    public int reconcile(Long userId) {
+        Integer corrected = transactionTemplate.execute(status -> {
+            long[] stored = userBookmarkCountRepository.lockCounts(userId);
+
+            Map<Long, Long> actual = new HashMap<>();
+            long total = 0;
+            for (CategoryCount row : bookmarkRepository.countByUserIdGroupByCategoryId(userId)) {
+                actual.put(row.categoryId(), row.count());
+                total += row.count();
+            }
+            long uncategorized = actual.getOrDefault(null, 0L);
+
+            int fixed = 0;
+            if (stored[0] != total || stored[1] != uncategorized) {
+                userBookmarkCountRepository.setCounts(userId, total, uncategorized);
+                fixed++;
+            }
+            Map<Long, Long> categoryFixes = new HashMap<>();
+            for (Category category : categoryRepository.findByUserIdOrderBySortOrderAsc(userId)) {
+                long count = actual.getOrDefault(category.getId(), 0L);
+                if (countOf(category) != count) {
+                    categoryFixes.put(category.getId(), count);
+                }
+            }
+            if (!categoryFixes.isEmpty()) {
+                categoryRepository.setBookmarkCounts(categoryFixes);
+                fixed += categoryFixes.size();
+            }
+            return fixed;
+        });
+        return corrected != null ? corrected : 0;
+    }
+
+    /**
+     * 每天校正一次所有用户的计数；有修正说明某条写路径漏了计数，记录警告
+     */
+    @Scheduled(cron = "${bookmark.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        int users = 0;
+        for (Long userId : userRepository.findActiveUserIds()) {
+            try {
+                int corrected = reconcile(userId);
+                if (corrected > 0) {
+                    users++;
+                    log.warn("用户 {} 的书签计数与实际不符，已校正 {} 行", userId, corrected);
+                }
+            } catch (RuntimeException e) {
+                log.error("校正用户 {} 的书签计数失败", userId, e);
+            }
+        }
+        log.info("书签计数校正完成，{} 个用户有修正", users);
+    }
+
+    /**
+     * 删除用户的计数行（注销账户时）
+     */
+    public void delete(Long userId) {
+        userBookmarkCountRepository.deleteById(userId);
+    }
+
+    /**
+     * 按 sign 增减计数，返回涉及的书签数
+     */
+    private long apply(Long userId, Map<Long, Long> countsByCategory, int sign) {
+        long total = 0;
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, Long> entry : countsByCategory.entrySet()) {
+            total += entry.getValue();
+            if (entry.getKey() != null && entry.getValue() != 0) {
+                deltas.put(entry.getKey(), sign * entry.getValue());
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long uncategorized = countsByCategory.getOrDefault(null, 0L);
+        // 先锁用户计数行再更新分类，同一用户的计数更新依次执行，不会交叉死锁
+        userBookmarkCountRepository.addCounts(userId, sign * total, sign * uncategorized);
+        if (!deltas.isEmpty()) {
+            categoryRepository.addBookmarkCounts(deltas);
+        }
+        return total;
+    }
+}
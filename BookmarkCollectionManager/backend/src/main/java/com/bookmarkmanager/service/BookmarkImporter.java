@@ -0,0 +1,354 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.entity.Bookmark;
+import com.bookmarkmanager.entity.Category;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.repository.CategoryRepository;
+import com.bookmarkmanager.search.SearchBackend;
+import com.bookmarkmanager.util.FaviconUrl;
+import com.bookmarkmanager.util.LongHashSet;
+import com.bookmarkmanager.util.UrlHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 书签导入写入器（每 chunk-size 条在一个短事务中批量写入）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookmarkImporter {
+
+    private final BookmarkRepository bookmarkRepository;
+    private final CategoryRepository categoryRepository;
+    private final SearchBackend searchBackend;
+    private final BookmarkTotalCache bookmarkTotalCache;
+    private final SortOrderAllocator sortOrderAllocator;
+    private final BookmarkCounters bookmarkCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 每批写入的行数
+    @Value("${bookmark.import.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * 待导入的分类
+     *
+     * @param ref  文件中的分类ID，书签通过它引用分类
+     * @param name 分类名称
+     * @param icon 图标，为空时使用默认图标
+     */
+    public record CategoryRow(String ref, String name, String icon) {
+    }
+
+    /**
+     * 待导入的书签
+     *
+     * @param categoryRef 文件中的分类ID，为空表示未分类
+     * @param createdAt   原来的添加时间，为空时使用导入时间
+     */
+    public record BookmarkRow(String title, String url, String description, String categoryRef,
+                              LocalDateTime createdAt) {
+    }
+
+    /**
+     * 开始一次导入
+     */
+    public Session open(Long userId) {
+        return new Session(userId);
+    }
+
+    /**
+     * 单次导入的状态：当前批次、分类映射和计数
+     * <p>
+     * 只能由一个线程驱动；计数可以由其他线程读取，用于查询导入进度。
+     */
+    public final class Session {
+
+        private final Long userId;
+
+        // 文件中的分类ID -> 导入后的分类ID
+        private final Map<String, Long> categoryIds = new HashMap<>();
+        // 用户已有（含本次新建）的分类：名称 -> ID，以及ID集合
+        private final Map<String, Long> categoriesByName = new HashMap<>();
+        private final Set<Long> ownedCategories = new HashSet<>();
+        // 已有书签和本次已接收书签的 URL 哈希，在内存中查重，不逐条查库；64 位哈希碰撞的概率可以忽略
+        private final LongHashSet urlHashes;
+
+        private final List<CategoryRow> categoryBatch = new ArrayList<>();
+        private final List<BookmarkRow> bookmarkBatch = new ArrayList<>();
+
+        private boolean categoriesDone;
+        private Path deferredFile;
+        private BufferedWriter deferred;
+
+        // 只由导入线程写入，其他线程可读
+        private volatile int importedCategories;
+        private volatile int importedBookmarks;
+        private volatile int duplicateBookmarks;
+        private volatile int failedBookmarks;
+
+        private Session(Long userId) {
+            this.userId = userId;
+            for (Category category : categoryRepository.findByUserIdOrderBySortOrderAsc(userId)) {
+                categoriesByName.putIfAbsent(category.getName(), category.getId());
+                ownedCategories.add(category.getId());
+            }
+            this.urlHashes = bookmarkRepository.findUrlHashesByUserId(userId);
+        }
+
+        public void addCategory(CategoryRow row) {
+            categoryBatch.add(row);
+            if (categoryBatch.size() >= chunkSize) {
+                flushCategories();
+            }
+        }
+
+        /**
+         * 立即写入已给出的分类，之后的书签可以直接引用它们；可多次调用
+         */
+        public void endCategories() {
+            flushCategories();
+            categoriesDone = true;
+        }
+
+        public void addBookmark(BookmarkRow row) {
+            // 分类写完之前可能引用尚未导入的分类，先暂存到临时文件，分类结束后再回放
+            if (!categoriesDone && row.categoryRef() != null) {
+                defer(row);
+                return;
+            }
+            bookmarkBatch.add(row);
+            if (bookmarkBatch.size() >= chunkSize) {
+                flushBookmarks();
+            }
+        }
+
+        /**
+         * 记一条无法解析的记录，计入失败数
+         */
+        public void skipInvalid() {
+            failedBookmarks++;
+        }
+
+        public int importedBookmarks() {
+            return importedBookmarks;
+        }
+
+        public int importedCategories() {
+            return importedCategories;
+        }
+
+        public int duplicateBookmarks() {
+            return duplicateBookmarks;
+        }
+
+        public int failedBookmarks() {
+            return failedBookmarks;
+        }
+
+        /**
+         * 写入剩余数据并返回导入结果
+         */
+        public Map<String, Integer> finish() {
+            try {
+                endCategories();
+                replayDeferred();
+                flushBookmarks();
+            } finally {
+                discardDeferred();
+                if (importedBookmarks > 0) {
+                    searchBackend.onUserDataChanged(userId);
+                    bookmarkTotalCache.evict(userId);
+                }
+            }
+
+            Map<String, Integer> result = new HashMap<>();
+            result.put("importedBookmarks", importedBookmarks);
+            result.put("importedCategories", importedCategories);
+            result.put("duplicateBookmarks", duplicateBookmarks);
+            result.put("failedBookmarks", failedBookmarks);
+            return result;
+        }
+
+        private void flushCategories() {
+            if (categoryBatch.isEmpty()) {
+                return;
+            }
+            // 已存在同名分类（含文件中前面的同名分类）时直接使用，其余的一次保存
+            Map<String, Category> toSave = new LinkedHashMap<>();
+            for (CategoryRow row : categoryBatch) {
+                if (row.name() == null || row.name().isBlank() || row.name().length() > 50
+                        || categoriesByName.containsKey(row.name())) {
+                    continue;
+                }
+                toSave.computeIfAbsent(row.name(), name -> Category.builder()
+                        .userId(userId)
+                        .name(name)
+                        .icon(row.icon() != null && row.icon().length() <= 10 ? row.icon() : "📁")
+                        .build());
+            }
+            if (!toSave.isEmpty()) {
+                // 排序号在保存的事务中分配，事务结束前计为进行中
+                List<Category> saved = transactionTemplate.execute(status -> {
+                    toSave.values().forEach(category ->
+                            category.setSortOrder(sortOrderAllocator.categories().next(userId)));
+                    return categoryRepository.saveAll(toSave.values());
+                });
+                for (Category category : saved) {
+                    categoriesByName.put(category.getName(), category.getId());
+                    ownedCategories.add(category.getId());
+                }
+                importedCategories += saved.size();
+            }
+            for (CategoryRow row : categoryBatch) {
+                Long categoryId = row.name() != null ? categoriesByName.get(row.name()) : null;
+                if (row.ref() != null && categoryId != null) {
+                    categoryIds.put(row.ref(), categoryId);
+                }
+            }
+            categoryBatch.clear();
+        }
+
+        private void flushBookmarks() {
+            if (bookmarkBatch.isEmpty()) {
+                return;
+            }
+            List<Bookmark> toSave = new ArrayList<>(bookmarkBatch.size());
+            // 本批新接收的哈希，写入失败时从集合中撤回
+            List<Long> batchHashes = new ArrayList<>(bookmarkBatch.size());
+            for (BookmarkRow row : bookmarkBatch) {
+                if (!isValid(row)) {
+                    failedBookmarks++;
+                    continue;
+                }
+                long hash = UrlHash.of(row.url());
+                if (!urlHashes.add(hash)) {
+                    duplicateBookmarks++;
+                    continue;
+                }
+                batchHashes.add(hash);
+                toSave.add(Bookmark.builder()
+                        .userId(userId)
+                        .title(row.title())
+                        .url(row.url())
+                        .description(row.description() != null ? row.description() : "")
+                        .favicon(FaviconUrl.of(row.url()))
+                        .categoryId(resolveCategory(row.categoryRef()))
+                        .createdAt(row.createdAt())
+                        .build());
+            }
+            bookmarkBatch.clear();
+            if (toSave.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    int sortOrder = sortOrderAllocator.bookmarks().reserve(userId, toSave.size())
+                            - SortKeyService.GAP;
+                    for (Bookmark bookmark : toSave) {
+                        sortOrder += SortKeyService.GAP;
+                        bookmark.setSortOrder(sortOrder);
+                    }
+                    bookmarkRepository.saveAll(toSave);
+                    bookmarkCounters.added(userId, toSave);
+                });
+                importedBookmarks += toSave.size();
+            } catch (RuntimeException e) {
+                log.warn("用户 {} 导入书签失败，跳过本批 {} 条", userId, toSave.size(), e);
+                failedBookmarks += toSave.size();
+                batchHashes.forEach(urlHashes::remove);
+            }
+        }
+
+        private boolean isValid(BookmarkRow row) {
+            return row.title() != null && !row.title().isBlank() && row.title().length() <= 100
+                    && row.url() != null && !row.url().isBlank() && row.url().length() <= 500
+                    && (row.description() == null || row.description().length() <= 500);
+        }
+
+        private Long resolveCategory(String ref) {
+            if (ref == null) {
+                return null;
+            }
+            Long categoryId = categoryIds.get(ref);
+            if (categoryId != null) {
+                return categoryId;
+            }
+            // 映射里没有时，尝试当作当前用户已有分类的ID直接使用
+            long directId;
+            try {
+                directId = Long.parseLong(ref);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            return ownedCategories.contains(directId) ? directId : null;
+        }
+
+        private void defer(BookmarkRow row) {
+            try {
+                if (deferred == null) {
+                    deferredFile = Files.createTempFile("bookmark-import-", ".jsonl");
+                    deferred = Files.newBufferedWriter(deferredFile, StandardCharsets.UTF_8);
+                }
+                deferred.write(objectMapper.writeValueAsString(row));
+                deferred.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void replayDeferred() {
+            if (deferred == null) {
+                return;
+            }
+            try {
+                deferred.close();
+                deferred = null;
+                try (BufferedReader reader = Files.newBufferedReader(deferredFile, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        addBookmark(objectMapper.readValue(line, BookmarkRow.class));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void discardDeferred() {
+            try {
+                if (deferred != null) {
+                    deferred.close();
+                }
+                if (deferredFile != null) {
+                    Files.deleteIfExists(deferredFile);
+                }
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", deferredFile, e);
+            }
+        }
+    }
+}
@@ -3,18 +3,37 @@ package com.bookmarkmanager.service;
 import com.bookmarkmanager.dto.bookmark.*;
 import com.bookmarkmanager.entity.Bookmark;
 import com.bookmarkmanager.entity.Category;
+import com.bookmarkmanager.entity.SyncTombstone;
 import com.bookmarkmanager.exception.BusinessException;
 import com.bookmarkmanager.repository.BookmarkRepository;
 import com.bookmarkmanager.repository.CategoryRepository;
+import com.bookmarkmanager.repository.LockedBookmarks;
+import com.bookmarkmanager.repository.SortKey;
+import com.bookmarkmanager.repository.SyncTombstoneRepository;
+import com.bookmarkmanager.search.SearchBackend;
+import com.bookmarkmanager.util.FaviconUrl;
+import com.bookmarkmanager.util.TransactionHooks;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 书签服务
@@ -23,37 +42,144 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookmarkService {
 
+    // 列表排序方式：默认按 sortOrder，frecency 按衰减后的访问得分
+    public static final String SORT_FRECENCY = "frecency";
+
     private final BookmarkRepository bookmarkRepository;
     private final CategoryRepository categoryRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final SearchBackend searchBackend;
+    private final BookmarkTotalCache bookmarkTotalCache;
+    private final SortKeyService sortKeyService;
+    private final SortOrderAllocator sortOrderAllocator;
+    private final BookmarkCounters bookmarkCounters;
+    private final BookmarkActivity bookmarkActivity;
+    private final VisitCounter visitCounter;
+    private final EntityManager entityManager;
 
     /**
      * 获取书签列表（分页）
+     * <p>
+     * 列表本身不做 COUNT，总数取自按筛选条件缓存的结果，写操作后失效。
+     * sort=frecency 时按访问频率和新近程度排序；关键词搜索仍按原顺序。
      */
     public PageResponse<BookmarkResponse> getBookmarks(Long userId, Integer page, Integer size, 
-                                                        Long categoryId, String keyword) {
+                                                        Long categoryId, String keyword, String sort) {
+        Slice<BookmarkResponse> slice = findSlice(userId, page, size, categoryId, keyword, sort);
+
+        long total;
+        if (!slice.hasNext() && (slice.hasContent() || page == 1)) {
+            // 已经是最后一页，总数可以直接算出来
+            total = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        } else {
+            total = bookmarkTotalCache.get(userId, categoryId, keyword,
+                    () -> countBookmarks(userId, categoryId, keyword));
+        }
+
+        return PageResponse.<BookmarkResponse>builder()
+                .total(total)
+                .page(page)
+                .size(size)
+                .list(slice.getContent())
+                .build();
+    }
+
+    /**
+     * 获取书签列表（分页，不统计总数，只返回是否有下一页）
+     */
+    public SliceResponse<BookmarkResponse> getBookmarkSlice(Long userId, Integer page, Integer size,
+                                                            Long categoryId, String keyword, String sort) {
+        Slice<BookmarkResponse> slice = findSlice(userId, page, size, categoryId, keyword, sort);
+        return SliceResponse.<BookmarkResponse>builder()
+                .page(page)
+                .size(size)
+                .hasNext(slice.hasNext())
+                .list(slice.getContent())
+                .build();
+    }
+
+    private Slice<BookmarkResponse> findSlice(Long userId, Integer page, Integer size, Long categoryId,
+                                              String keyword, String sort) {
+        boolean frecency = isFrecency(sort);
         Pageable pageable = PageRequest.of(page - 1, size);
-        Page<Bookmark> bookmarkPage;
+        if (hasKeyword(keyword)) {
+            return searchBackend.search(userId, categoryId, keyword, pageable);
+        } else if (frecency && categoryId != null) {
+            return bookmarkRepository.findSliceByUserIdAndCategoryIdOrderByFrecency(userId, categoryId, pageable);
+        } else if (frecency) {
+            return bookmarkRepository.findSliceByUserIdOrderByFrecency(userId, pageable);
+        } else if (categoryId != null) {
+            return bookmarkRepository.findSliceByUserIdAndCategoryId(userId, categoryId, pageable);
+        } else {
+            return bookmarkRepository.findSliceByUserId(userId, pageable);
+        }
+    }
 
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            if (categoryId != null) {
-                bookmarkPage = bookmarkRepository.searchByCategoryAndKeyword(userId, categoryId, keyword, pageable);
-            } else {
-                bookmarkPage = bookmarkRepository.searchByKeyword(userId, keyword, pageable);
-            }
+    private long countBookmarks(Long userId, Long categoryId, String keyword) {
+        if (hasKeyword(keyword)) {
+            return searchBackend.count(userId, categoryId, keyword);
         } else if (categoryId != null) {
-            bookmarkPage = bookmarkRepository.findByUserIdAndCategoryIdOrderBySortOrderAsc(userId, categoryId, pageable);
+            return categoryRepository.findByIdAndUserId(categoryId, userId)
+                    .map(BookmarkCounters::countOf)
+                    .orElse(0L);
         } else {
-            bookmarkPage = bookmarkRepository.findByUserIdOrderBySortOrderAsc(userId, pageable);
+            return bookmarkCounters.total(userId);
         }
+    }
 
-        List<BookmarkResponse> list = bookmarkPage.getContent().stream()
-                .map(this::toBookmarkResponse)
-                .collect(Collectors.toList());
+    private boolean hasKeyword(String keyword) {
+        return keyword != null && !keyword.trim().isEmpty();
+    }
 
-        return PageResponse.<BookmarkResponse>builder()
-                .total(bookmarkPage.getTotalElements())
-                .page(page)
+    private boolean isFrecency(String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return false;
+        }
+        if (!SORT_FRECENCY.equals(sort)) {
+            throw new BusinessException("不支持的排序方式: " + sort);
+        }
+        return true;
+    }
+
+    /**
+     * 获取书签列表（游标分页，不统计总数）
+     * <p>
+     * 游标是 (sortOrder, id) 的不透明编码，为空时从第一条开始。
+     */
+    public CursorPageResponse<BookmarkResponse> getBookmarksByCursor(Long userId, String cursor, Integer size,
+                                                                     Long categoryId, String keyword) {
+        int afterSortOrder = Integer.MIN_VALUE;
+        long afterId = 0L;
+        if (cursor != null && !cursor.isEmpty()) {
+            long[] position = decodeCursor(cursor);
+            afterSortOrder = (int) position[0];
+            afterId = position[1];
+        }
+
+        // 多取一条用于判断是否还有下一页
+        int limit = size + 1;
+        Pageable pageable = PageRequest.of(0, limit);
+        List<BookmarkResponse> rows;
+        if (hasKeyword(keyword)) {
+            rows = searchBackend.searchAfter(userId, categoryId, keyword, afterSortOrder, afterId, limit);
+        } else if (categoryId != null) {
+            rows = bookmarkRepository.findByCategoryAfterCursor(userId, categoryId, afterSortOrder, afterId, pageable);
+        } else {
+            rows = bookmarkRepository.findAfterCursor(userId, afterSortOrder, afterId, pageable);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<BookmarkResponse> list = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            BookmarkResponse last = list.get(list.size() - 1);
+            nextCursor = encodeCursor(last.getSortOrder(), last.getId());
+        }
+
+        return CursorPageResponse.<BookmarkResponse>builder()
                 .size(size)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
                 .list(list)
                 .build();
     }
@@ -62,9 +188,8 @@ public class BookmarkService {
      * 获取单个书签
      */
     public BookmarkResponse getBookmark(Long userId, Long bookmarkId) {
-        Bookmark bookmark = bookmarkRepository.findByIdAndUserId(bookmarkId, userId)
+        return bookmarkRepository.findResponseByIdAndUserId(bookmarkId, userId)
                 .orElseThrow(() -> new BusinessException(404, "书签不存在"));
-        return toBookmarkResponse(bookmark);
     }
 
     /**
@@ -73,16 +198,10 @@ public class BookmarkService {
     @Transactional
     public BookmarkResponse createBookmark(Long userId, BookmarkRequest request) {
         // 验证分类是否存在
-        if (request.getCategoryId() != null) {
-            categoryRepository.findByIdAndUserId(request.getCategoryId(), userId)
-                    .orElseThrow(() -> new BusinessException(404, "分类不存在"));
-        }
-
-        // 获取最大排序号
-        Integer maxSortOrder = bookmarkRepository.findMaxSortOrderByUserId(userId);
+        String categoryName = findCategoryName(userId, request.getCategoryId(), "分类不存在");
 
         // 生成 favicon URL
-        String favicon = generateFaviconUrl(request.getUrl());
+        String favicon = FaviconUrl.of(request.getUrl());
 
         Bookmark bookmark = Bookmark.builder()
                 .userId(userId)
@@ -91,11 +210,52 @@ public class BookmarkService {
                 .description(request.getDescription())
                 .favicon(favicon)
                 .categoryId(request.getCategoryId())
-                .sortOrder(maxSortOrder + 1)
+                .sortOrder(sortOrderAllocator.bookmarks().next(userId))
                 .build();
 
         bookmark = bookmarkRepository.save(bookmark);
-        return toBookmarkResponse(bookmark);
+        bookmarkCounters.added(userId, bookmark);
+        searchBackend.onBookmarkSaved(bookmark);
+        bookmarkTotalCache.evict(userId);
+        return toBookmarkResponse(bookmark, categoryName);
+    }
+
+    /**
+     * 批量创建书签
+     * <p>
+     * 书签主键由表生成器预分配，所有书签在事务提交时按 hibernate.jdbc.batch_size 分批插入。
+     */
+    @Transactional
+    public int createBookmarks(Long userId, List<BookmarkRequest> requests) {
+        // 一次校验所有引用到的分类
+        Set<Long> categoryIds = requests.stream()
+                .map(BookmarkRequest::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!categoryIds.isEmpty() && categoryRepository.countByUserIdAndIdIn(userId, categoryIds) != categoryIds.size()) {
+            throw new BusinessException(404, "分类不存在");
+        }
+
+        int sortOrder = sortOrderAllocator.bookmarks().reserve(userId, requests.size());
+        List<Bookmark> bookmarks = new ArrayList<>(requests.size());
+        for (BookmarkRequest request : requests) {
+            bookmarks.add(Bookmark.builder()
+                    .userId(userId)
+                    .title(request.getTitle())
+                    .url(request.getUrl())
+                    .description(request.getDescription())
+                    .favicon(FaviconUrl.of(request.getUrl()))
+                    .categoryId(request.getCategoryId())
+                    .sortOrder(sortOrder)
+                    .build());
+            sortOrder += SortKeyService.GAP;
+        }
+
+        bookmarkRepository.saveAll(bookmarks);
+        bookmarkCounters.added(userId, bookmarks);
+        searchBackend.onUserDataChanged(userId);
+        bookmarkTotalCache.evict(userId);
+        return bookmarks.size();
     }
 
     /**
@@ -103,14 +263,12 @@ public class BookmarkService {
      */
     @Transactional
     public BookmarkResponse updateBookmark(Long userId, Long bookmarkId, BookmarkRequest request) {
-        Bookmark bookmark = bookmarkRepository.findByIdAndUserId(bookmarkId, userId)
+        Bookmark bookmark = bookmarkRepository.findByIdAndUserIdForUpdate(bookmarkId, userId)
                 .orElseThrow(() -> new BusinessException(404, "书签不存在"));
+        Long previousCategoryId = bookmark.getCategoryId();
 
         // 验证分类是否存在
-        if (request.getCategoryId() != null) {
-            categoryRepository.findByIdAndUserId(request.getCategoryId(), userId)
-                    .orElseThrow(() -> new BusinessException(404, "分类不存在"));
-        }
+        String categoryName = findCategoryName(userId, request.getCategoryId(), "分类不存在");
 
         bookmark.setTitle(request.getTitle());
         bookmark.setUrl(request.getUrl());
@@ -119,11 +277,14 @@ public class BookmarkService {
         
         // 如果 URL 变了，更新 favicon
         if (!bookmark.getUrl().equals(request.getUrl())) {
-            bookmark.setFavicon(generateFaviconUrl(request.getUrl()));
+            bookmark.setFavicon(FaviconUrl.of(request.getUrl()));
         }
 
         bookmark = bookmarkRepository.save(bookmark);
-        return toBookmarkResponse(bookmark);
+        bookmarkCounters.moved(userId, previousCategoryId, bookmark.getCategoryId(), 1);
+        searchBackend.onBookmarkSaved(bookmark);
+        bookmarkTotalCache.evict(userId);
+        return toBookmarkResponse(bookmark, categoryName);
     }
 
     /**
@@ -131,9 +292,13 @@ public class BookmarkService {
      */
     @Transactional
     public void deleteBookmark(Long userId, Long bookmarkId) {
-        Bookmark bookmark = bookmarkRepository.findByIdAndUserId(bookmarkId, userId)
+        Bookmark bookmark = bookmarkRepository.findByIdAndUserIdForUpdate(bookmarkId, userId)
                 .orElseThrow(() -> new BusinessException(404, "书签不存在"));
         bookmarkRepository.delete(bookmark);
+        bookmarkCounters.removed(userId, bookmark.getCategoryId());
+        syncTombstoneRepository.batchInsert(userId, SyncTombstone.BOOKMARK, List.of(bookmarkId));
+        searchBackend.onBookmarksDeleted(userId, List.of(bookmarkId));
+        bookmarkTotalCache.evict(userId);
     }
 
     /**
@@ -141,8 +306,29 @@ public class BookmarkService {
      */
     @Transactional
     public int batchDeleteBookmarks(Long userId, List<Long> ids) {
-        bookmarkRepository.deleteByIdsAndUserId(ids, userId);
-        return ids.size();
+        // 先锁住实际存在的书签，计数、墓碑和索引只处理真正删除的书签
+        LockedBookmarks deleted = bookmarkRepository.lockAndCountByCategory(userId, ids);
+        if (deleted.ids().isEmpty()) {
+            return 0;
+        }
+        bookmarkRepository.deleteByIdsAndUserId(deleted.ids(), userId);
+        bookmarkCounters.removed(userId, deleted.countsByCategory());
+        syncTombstoneRepository.batchInsert(userId, SyncTombstone.BOOKMARK, deleted.ids());
+        searchBackend.onBookmarksDeleted(userId, deleted.ids());
+        bookmarkTotalCache.evict(userId);
+        return deleted.ids().size();
+    }
+
+    /**
+     * 记录一次书签访问
+     * <p>
+     * 只校验归属并在内存中计数，访问次数由 VisitCounter 定时批量写回。
+     */
+    public void recordVisit(Long userId, Long bookmarkId) {
+        if (!bookmarkRepository.existsByIdAndUserId(bookmarkId, userId)) {
+            throw new BusinessException(404, "书签不存在");
+        }
+        visitCounter.record(bookmarkId);
     }
 
     /**
@@ -150,12 +336,74 @@ public class BookmarkService {
      */
     @Transactional
     public void reorderBookmarks(Long userId, List<Long> bookmarkIds, Long categoryId) {
+        Set<Long> distinctIds = new HashSet<>(bookmarkIds);
+        if (bookmarkRepository.countByUserIdAndIdIn(userId, distinctIds) != distinctIds.size()) {
+            throw new BusinessException(404, "书签不存在");
+        }
+
+        Map<Long, Integer> sortOrders = new HashMap<>();
         for (int i = 0; i < bookmarkIds.size(); i++) {
-            Bookmark bookmark = bookmarkRepository.findByIdAndUserId(bookmarkIds.get(i), userId)
-                    .orElseThrow(() -> new BusinessException(404, "书签不存在"));
-            bookmark.setSortOrder(i);
-            bookmarkRepository.save(bookmark);
+            sortOrders.put(bookmarkIds.get(i), (i + 1) * SortKeyService.GAP);
+        }
+        bookmarkRepository.batchUpdateSortOrders(userId, sortOrders);
+        searchBackend.onSortOrdersChanged(userId, sortOrders);
+    }
+
+    /**
+     * 调整单个书签位置（移动到另一书签之前或之后）
+     * <p>
+     * 通常只改写被移动的书签；间隙用尽时会连带改写附近少量书签，并在提交后后台重排。
+     */
+    @Transactional
+    public BookmarkResponse positionBookmark(Long userId, Long bookmarkId, BookmarkPositionRequest request) {
+        if ((request.getBeforeId() == null) == (request.getAfterId() == null)) {
+            throw new BusinessException("beforeId 和 afterId 必须且只能指定一个");
+        }
+        boolean before = request.getBeforeId() != null;
+        Long anchorId = before ? request.getBeforeId() : request.getAfterId();
+        if (anchorId.equals(bookmarkId)) {
+            throw new BusinessException("不能相对自身移动");
+        }
+
+        bookmarkRepository.findByIdAndUserId(bookmarkId, userId)
+                .orElseThrow(() -> new BusinessException(404, "书签不存在"));
+        Bookmark anchor = bookmarkRepository.findByIdAndUserId(anchorId, userId)
+                .orElseThrow(() -> new BusinessException(404, "目标书签不存在"));
+
+        SortKeyService.RankedList list = rankedBookmarks(userId);
+        SortKeyService.Placement placement = sortKeyService.place(
+                list, bookmarkId, new SortKey(anchor.getId(), anchor.getSortOrder()), before);
+        if (placement.crowded()) {
+            SortKey center = new SortKey(bookmarkId, placement.sortOrders().get(bookmarkId));
+            TransactionHooks.afterCommit(() -> sortKeyService.rebalanceAround(list, center));
         }
+
+        return bookmarkRepository.findResponseByIdAndUserId(bookmarkId, userId)
+                .orElseThrow(() -> new BusinessException(404, "书签不存在"));
+    }
+
+    private SortKeyService.RankedList rankedBookmarks(Long userId) {
+        return new SortKeyService.RankedList() {
+            @Override
+            public List<SortKey> following(SortKey from, Long excludeId, int limit) {
+                return bookmarkRepository.findSortKeysAfter(
+                        userId, from.sortOrder(), from.id(), excludeId, PageRequest.of(0, limit));
+            }
+
+            @Override
+            public List<SortKey> preceding(SortKey from, Long excludeId, int limit) {
+                return bookmarkRepository.findSortKeysBefore(
+                        userId, from.sortOrder(), from.id(), excludeId, PageRequest.of(0, limit));
+            }
+
+            @Override
+            public void update(Map<Long, Integer> sortOrders) {
+                bookmarkRepository.batchUpdateSortOrders(userId, sortOrders);
+                searchBackend.onSortOrdersChanged(userId, sortOrders);
+                sortOrders.values().stream().max(Integer::compare)
+                        .ifPresent(max -> sortOrderAllocator.bookmarks().advance(userId, max));
+            }
+        };
     }
 
     /**
@@ -163,44 +411,60 @@ public class BookmarkService {
      */
     @Transactional
     public BookmarkResponse moveBookmark(Long userId, Long bookmarkId, Long targetCategoryId) {
-        Bookmark bookmark = bookmarkRepository.findByIdAndUserId(bookmarkId, userId)
+        Bookmark bookmark = bookmarkRepository.findByIdAndUserIdForUpdate(bookmarkId, userId)
                 .orElseThrow(() -> new BusinessException(404, "书签不存在"));
+        Long previousCategoryId = bookmark.getCategoryId();
 
         // 验证目标分类
-        if (targetCategoryId != null) {
-            categoryRepository.findByIdAndUserId(targetCategoryId, userId)
-                    .orElseThrow(() -> new BusinessException(404, "目标分类不存在"));
-        }
+        String categoryName = findCategoryName(userId, targetCategoryId, "目标分类不存在");
 
         bookmark.setCategoryId(targetCategoryId);
         bookmark = bookmarkRepository.save(bookmark);
-        return toBookmarkResponse(bookmark);
+        bookmarkCounters.moved(userId, previousCategoryId, targetCategoryId, 1);
+        searchBackend.onBookmarkSaved(bookmark);
+        bookmarkTotalCache.evict(userId);
+        return toBookmarkResponse(bookmark, categoryName);
     }
 
     /**
-     * 获取用户的所有书签（用于导出）
+     * 逐条读取用户的所有书签（用于流式导出）
+     * <p>
+     * 从数据库游标按批取行，每条转换后立即从持久化上下文中移除，内存占用与书签数量无关。
+     * 分类名由调用方传入，不逐行查询分类。groupByCategory 为 true 时按分类分组输出（未分类在前）。
      */
-    public List<BookmarkResponse> getAllBookmarks(Long userId) {
-        return bookmarkRepository.findByUserIdOrderBySortOrderAsc(userId).stream()
-                .map(this::toBookmarkResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void forEachBookmark(Long userId, Map<Long, String> categoryNames, boolean groupByCategory,
+                                Consumer<BookmarkResponse> action) {
+        try (Stream<Bookmark> bookmarks = groupByCategory
+                ? bookmarkRepository.streamByUserIdGroupedByCategory(userId)
+                : bookmarkRepository.streamByUserId(userId)) {
+            bookmarks.forEach(bookmark -> {
+                entityManager.detach(bookmark);
+                action.accept(toBookmarkResponse(bookmark, categoryNames.get(bookmark.getCategoryId())));
+            });
+        }
     }
 
     /**
      * 获取用户书签数量
      */
     public long getBookmarkCount(Long userId) {
-        return bookmarkRepository.countByUserId(userId);
+        return bookmarkCounters.total(userId);
     }
 
-    private BookmarkResponse toBookmarkResponse(Bookmark bookmark) {
-        String categoryName = null;
-        if (bookmark.getCategoryId() != null) {
-            categoryName = categoryRepository.findById(bookmark.getCategoryId())
-                    .map(Category::getName)
-                    .orElse(null);
+    /**
+     * 校验分类归属并返回分类名，categoryId 为空时返回 null
+     */
+    private String findCategoryName(Long userId, Long categoryId, String notFoundMessage) {
+        if (categoryId == null) {
+            return null;
         }
+        return categoryRepository.findByIdAndUserId(categoryId, userId)
+                .map(Category::getName)
+                .orElseThrow(() -> new BusinessException(404, notFoundMessage));
+    }
 
+    private BookmarkResponse toBookmarkResponse(Bookmark bookmark, String categoryName) {
         return BookmarkResponse.builder()
                 .id(bookmark.getId())
                 .title(bookmark.getTitle())
@@ -212,27 +476,46 @@ public class BookmarkService {
                 .sortOrder(bookmark.getSortOrder())
                 .createdAt(bookmark.getCreatedAt())
                 .updatedAt(bookmark.getUpdatedAt())
+                .visitCount(bookmark.getVisitCount() != null ? bookmark.getVisitCount() : 0L)
+                .lastVisitedAt(bookmark.getLastVisitedAt())
                 .build();
     }
 
-    private String generateFaviconUrl(String url) {
+    private String encodeCursor(Integer sortOrder, Long id) {
+        String raw = (sortOrder != null ? sortOrder : 0) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long[] decodeCursor(String cursor) {
         try {
-            java.net.URL parsedUrl = new java.net.URL(url);
-            String domain = parsedUrl.getHost();
-            return "https://www.google.com/s2/favicons?domain=" + domain + "&sz=64";
-        } catch (Exception e) {
-            return null;
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new long[]{Integer.parseInt(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1))};
+        } catch (RuntimeException e) {
+            throw new BusinessException("游标无效");
         }
     }
 
     /**
      * 删除用户的所有书签
+     * <p>
+     * 按 chunkSize 分批直接在数据库中删除，每批单独提交，不加载实体；每删完一批回调一次删除数。
      */
-    @Transactional
-    public int deleteAllBookmarksByUserId(Long userId) {
-        List<Bookmark> bookmarks = bookmarkRepository.findByUserIdOrderBySortOrderAsc(userId, null).getContent();
-        int count = bookmarks.size();
-        bookmarkRepository.deleteAll(bookmarks);
+    public int deleteAllBookmarksByUserId(Long userId, int chunkSize, IntConsumer onChunk) {
+        int count = 0;
+        int deleted;
+        do {
+            deleted = bookmarkRepository.deleteChunkByUserId(userId, chunkSize);
+            count += deleted;
+            onChunk.accept(deleted);
+        } while (deleted == chunkSize);
+
+        // 分批删除不在一个事务中，删完后按实际数量重新统计计数
+        bookmarkCounters.reconcile(userId);
+        bookmarkActivity.deleted(userId, count);
+        searchBackend.onUserDataChanged(userId);
+        bookmarkTotalCache.evict(userId);
+        sortOrderAllocator.bookmarks().reset(userId);
         return count;
     }
 }
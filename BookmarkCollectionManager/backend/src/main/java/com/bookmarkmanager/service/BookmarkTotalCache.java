@@ -0,0 +1,66 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 书签列表总数缓存
+ * <p>
+ * 按 用户 + 筛选条件（分类、关键词）缓存 COUNT 结果，书签写操作在事务提交后整体失效该用户的缓存。
+ * 另设过期时间兜底绕过服务层的写入，因此总数在极端情况下可能短暂不精确。
+ */
+@Component
+public class BookmarkTotalCache {
+
+    // 单个用户最多缓存的筛选条件数，超出后清空重来
+    private static final int MAX_FILTERS_PER_USER = 64;
+
+    private final Map<Long, Map<String, Entry>> totals = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+
+    public BookmarkTotalCache(@Value("${bookmark.total-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * 获取总数，未命中或已过期时调用 counter 计算
+     */
+    public long get(Long userId, Long categoryId, String keyword, LongSupplier counter) {
+        String key = filterKey(categoryId, keyword);
+        Map<String, Entry> userTotals = totals.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+        long now = System.currentTimeMillis();
+        Entry entry = userTotals.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.total();
+        }
+
+        long total = counter.getAsLong();
+        if (userTotals.size() >= MAX_FILTERS_PER_USER) {
+            userTotals.clear();
+        }
+        userTotals.put(key, new Entry(total, now + ttlMillis));
+        return total;
+    }
+
+    /**
+     * 在当前事务提交后失效用户的所有缓存总数
+     */
+    public void evict(Long userId) {
+        TransactionHooks.afterCommit(() -> totals.remove(userId));
+    }
+
+    private String filterKey(Long categoryId, String keyword) {
+        String normalized = keyword != null ? keyword.toLowerCase(Locale.ROOT) : "";
+        return (categoryId != null ? categoryId : "") + "|" + normalized;
+    }
+
+    private record Entry(long total, long expiresAt) {
+    }
+}
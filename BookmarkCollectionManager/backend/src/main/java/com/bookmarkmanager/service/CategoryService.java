@@ -1,16 +1,29 @@
 package com.bookmarkmanager.service;
 
+import com.bookmarkmanager.dto.category.CategoryPositionRequest;
 import com.bookmarkmanager.dto.category.CategoryRequest;
 import com.bookmarkmanager.dto.category.CategoryResponse;
 import com.bookmarkmanager.entity.Category;
+import com.bookmarkmanager.entity.SyncTombstone;
 import com.bookmarkmanager.exception.BusinessException;
 import com.bookmarkmanager.repository.BookmarkRepository;
 import com.bookmarkmanager.repository.CategoryRepository;
+import com.bookmarkmanager.repository.SortKey;
+import com.bookmarkmanager.repository.SyncTombstoneRepository;
+import com.bookmarkmanager.search.SearchBackend;
+import com.bookmarkmanager.util.TransactionHooks;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -22,13 +35,28 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final BookmarkRepository bookmarkRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final SearchBackend searchBackend;
+    private final BookmarkTotalCache bookmarkTotalCache;
+    private final SortKeyService sortKeyService;
+    private final SortOrderAllocator sortOrderAllocator;
+    private final BookmarkCounters bookmarkCounters;
 
     /**
      * 获取用户的所有分类
+     * <p>
+     * 分类和书签数一条语句查出，查询次数与分类数无关；导出也通过这里取分类。
      */
     public List<CategoryResponse> getCategories(Long userId) {
-        List<Category> categories = categoryRepository.findByUserIdOrderBySortOrderAsc(userId);
-        return categories.stream()
+        return categoryRepository.findResponsesByUserId(userId);
+    }
+
+    /**
+     * 获取 updated_at 不早于 since 的分类（增量同步）
+     */
+    public List<CategoryResponse> getCategoriesUpdatedSince(Long userId, LocalDateTime since) {
+        return categoryRepository.findByUserIdAndUpdatedAtGreaterThanEqualOrderBySortOrderAsc(userId, since)
+                .stream()
                 .map(this::toCategoryResponse)
                 .collect(Collectors.toList());
     }
@@ -43,14 +71,11 @@ public class CategoryService {
             throw new BusinessException("分类名称已存在");
         }
 
-        // 获取最大排序号
-        Integer maxSortOrder = categoryRepository.findMaxSortOrderByUserId(userId);
-
         Category category = Category.builder()
                 .userId(userId)
                 .name(request.getName())
                 .icon(request.getIcon() != null ? request.getIcon() : "📁")
-                .sortOrder(maxSortOrder + 1)
+                .sortOrder(sortOrderAllocator.categories().next(userId))
                 .build();
 
         category = categoryRepository.save(category);
@@ -92,17 +117,19 @@ public class CategoryService {
             // 移动到指定分类
             categoryRepository.findByIdAndUserId(moveBookmarksTo, userId)
                     .orElseThrow(() -> new BusinessException(404, "目标分类不存在"));
-            // 这里简化处理，直接将书签的 categoryId 设为目标分类
-            List<com.bookmarkmanager.entity.Bookmark> bookmarks = 
-                bookmarkRepository.findByUserIdAndCategoryIdOrderBySortOrderAsc(userId, categoryId);
-            bookmarks.forEach(b -> b.setCategoryId(moveBookmarksTo));
-            bookmarkRepository.saveAll(bookmarks);
+            // 直接将书签的 categoryId 设为目标分类，计数按实际更新的行数转移
+            int moved = bookmarkRepository.moveCategory(categoryId, moveBookmarksTo, LocalDateTime.now());
+            bookmarkCounters.moved(userId, categoryId, moveBookmarksTo, moved);
         } else {
             // 设为未分类
-            bookmarkRepository.clearCategoryId(categoryId);
+            int cleared = bookmarkRepository.clearCategoryId(categoryId, LocalDateTime.now());
+            bookmarkCounters.moved(userId, categoryId, null, cleared);
         }
 
         categoryRepository.delete(category);
+        syncTombstoneRepository.batchInsert(userId, SyncTombstone.CATEGORY, List.of(categoryId));
+        searchBackend.onUserDataChanged(userId);
+        bookmarkTotalCache.evict(userId);
     }
 
     /**
@@ -110,16 +137,77 @@ public class CategoryService {
      */
     @Transactional
     public void reorderCategories(Long userId, List<Long> categoryIds) {
+        Set<Long> distinctIds = new HashSet<>(categoryIds);
+        if (categoryRepository.countByUserIdAndIdIn(userId, distinctIds) != distinctIds.size()) {
+            throw new BusinessException(404, "分类不存在");
+        }
+
+        Map<Long, Integer> sortOrders = new HashMap<>();
         for (int i = 0; i < categoryIds.size(); i++) {
-            Category category = categoryRepository.findByIdAndUserId(categoryIds.get(i), userId)
-                    .orElseThrow(() -> new BusinessException(404, "分类不存在"));
-            category.setSortOrder(i);
-            categoryRepository.save(category);
+            sortOrders.put(categoryIds.get(i), (i + 1) * SortKeyService.GAP);
+        }
+        categoryRepository.batchUpdateSortOrders(userId, sortOrders);
+    }
+
+    /**
+     * 调整单个分类位置（移动到另一分类之前或之后）
+     */
+    @Transactional
+    public CategoryResponse positionCategory(Long userId, Long categoryId, CategoryPositionRequest request) {
+        if ((request.getBeforeId() == null) == (request.getAfterId() == null)) {
+            throw new BusinessException("beforeId 和 afterId 必须且只能指定一个");
+        }
+        boolean before = request.getBeforeId() != null;
+        Long anchorId = before ? request.getBeforeId() : request.getAfterId();
+        if (anchorId.equals(categoryId)) {
+            throw new BusinessException("不能相对自身移动");
         }
+
+        Category category = categoryRepository.findByIdAndUserId(categoryId, userId)
+                .orElseThrow(() -> new BusinessException(404, "分类不存在"));
+        Category anchor = categoryRepository.findByIdAndUserId(anchorId, userId)
+                .orElseThrow(() -> new BusinessException(404, "目标分类不存在"));
+
+        SortKeyService.RankedList list = rankedCategories(userId);
+        SortKeyService.Placement placement = sortKeyService.place(
+                list, categoryId, new SortKey(anchor.getId(), anchor.getSortOrder()), before);
+        Integer sortOrder = placement.sortOrders().get(categoryId);
+        if (placement.crowded()) {
+            SortKey center = new SortKey(categoryId, sortOrder);
+            TransactionHooks.afterCommit(() -> sortKeyService.rebalanceAround(list, center));
+        }
+
+        // 排序号已通过批量 SQL 写入，这里只同步返回值，不让实体再次落库
+        CategoryResponse response = toCategoryResponse(category);
+        response.setSortOrder(sortOrder);
+        return response;
+    }
+
+    private SortKeyService.RankedList rankedCategories(Long userId) {
+        return new SortKeyService.RankedList() {
+            @Override
+            public List<SortKey> following(SortKey from, Long excludeId, int limit) {
+                return categoryRepository.findSortKeysAfter(
+                        userId, from.sortOrder(), from.id(), excludeId, PageRequest.of(0, limit));
+            }
+
+            @Override
+            public List<SortKey> preceding(SortKey from, Long excludeId, int limit) {
+                return categoryRepository.findSortKeysBefore(
+                        userId, from.sortOrder(), from.id(), excludeId, PageRequest.of(0, limit));
+            }
+
+            @Override
+            public void update(Map<Long, Integer> sortOrders) {
+                categoryRepository.batchUpdateSortOrders(userId, sortOrders);
+                sortOrders.values().stream().max(Integer::compare)
+                        .ifPresent(max -> sortOrderAllocator.categories().advance(userId, max));
+            }
+        };
     }
 
     private CategoryResponse toCategoryResponse(Category category) {
-        long bookmarkCount = bookmarkRepository.countByCategoryId(category.getId());
+        long bookmarkCount = BookmarkCounters.countOf(category);
         return CategoryResponse.builder()
                 .id(category.getId())
                 .name(category.getName())
@@ -132,12 +220,19 @@ public class CategoryService {
 
     /**
      * 删除用户的所有分类
+     * <p>
+     * 按 chunkSize 分批直接在数据库中删除，每批单独提交，不加载实体；每删完一批回调一次删除数。
      */
-    @Transactional
-    public int deleteAllCategoriesByUserId(Long userId) {
-        List<Category> categories = categoryRepository.findByUserIdOrderBySortOrderAsc(userId);
-        int count = categories.size();
-        categoryRepository.deleteAll(categories);
+    public int deleteAllCategoriesByUserId(Long userId, int chunkSize, IntConsumer onChunk) {
+        int count = 0;
+        int deleted;
+        do {
+            deleted = categoryRepository.deleteChunkByUserId(userId, chunkSize);
+            count += deleted;
+            onChunk.accept(deleted);
+        } while (deleted == chunkSize);
+
+        sortOrderAllocator.categories().reset(userId);
         return count;
     }
 }
@@ -0,0 +1,141 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.dto.data.DataClearJobResponse;
+import com.bookmarkmanager.exception.BusinessException;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 清空数据任务登记表
+ * <p>
+ * 清空请求只登记任务并交给后台线程执行，客户端凭任务ID轮询进度。同一用户同时只会有一个进行中的任务，
+ * 重复提交返回已有任务。任务状态只保存在内存中，结束一小时后清理；重启后进行中的任务不会续跑，
+ * 已删除的部分不会恢复，重新提交即可删完剩余数据。
+ */
+@Component
+@RequiredArgsConstructor
+public class DataClearJobs {
+
+    // 已结束任务的保留时间
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Job> runningByUser = new ConcurrentHashMap<>();
+
+    private final BookmarkRepository bookmarkRepository;
+    private final CategoryRepository categoryRepository;
+    private final DataService dataService;
+
+    /**
+     * 提交清空任务，用户已有进行中的任务时直接返回该任务
+     */
+    public DataClearJobResponse start(Long userId) {
+        purgeFinished();
+        Job running = runningByUser.get(userId);
+        if (running != null) {
+            return running.toResponse();
+        }
+
+        // 计数放在登记之外，避免持锁访问数据库；并发提交时以先登记的为准
+        Job job = new Job(UUID.randomUUID().toString(), userId,
+                (int) bookmarkRepository.countByUserId(userId), (int) categoryRepository.countByUserId(userId));
+        running = runningByUser.putIfAbsent(userId, job);
+        if (running != null) {
+            return running.toResponse();
+        }
+        jobs.put(job.id, job);
+        dataService.clearAllData(job);
+        return job.toResponse();
+    }
+
+    /**
+     * 查询任务状态，只能查询自己的任务
+     */
+    public DataClearJobResponse get(Long userId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            throw new BusinessException(404, "任务不存在");
+        }
+        return job.toResponse();
+    }
+
+    private void finished(Job job) {
+        runningByUser.remove(job.userId, job);
+    }
+
+    private void purgeFinished() {
+        LocalDateTime threshold = LocalDateTime.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    /**
+     * 单个清空任务的进度，只由执行线程更新，请求线程读取
+     */
+    public final class Job {
+
+        private final String id;
+        private final Long userId;
+        private final int totalBookmarks;
+        private final int totalCategories;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile String status = "RUNNING";
+        private volatile int deletedBookmarks;
+        private volatile int deletedCategories;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, Long userId, int totalBookmarks, int totalCategories) {
+            this.id = id;
+            this.userId = userId;
+            this.totalBookmarks = totalBookmarks;
+            this.totalCategories = totalCategories;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void bookmarksDeleted(int count) {
+            deletedBookmarks += count;
+        }
+
+        public void categoriesDeleted(int count) {
+            deletedCategories += count;
+        }
+
+        public void complete() {
+            status = "COMPLETED";
+            finishedAt = LocalDateTime.now();
+            finished(this);
+        }
+
+        public void fail(String message) {
+            error = message;
+            status = "FAILED";
+            finishedAt = LocalDateTime.now();
+            finished(this);
+        }
+
+        private DataClearJobResponse toResponse() {
+            return DataClearJobResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .totalBookmarks(totalBookmarks)
+                    .totalCategories(totalCategories)
+                    .deletedBookmarks(deletedBookmarks)
+                    .deletedCategories(deletedCategories)
+                    .error(error)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -1,136 +1,406 @@
 package com.bookmarkmanager.service;
 
-import com.bookmarkmanager.entity.Bookmark;
-import com.bookmarkmanager.entity.Category;
-import com.bookmarkmanager.repository.BookmarkRepository;
-import com.bookmarkmanager.repository.CategoryRepository;
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.dto.category.CategoryResponse;
+import com.bookmarkmanager.exception.BusinessException;
+import com.bookmarkmanager.repository.SyncTombstoneRepository;
+import com.bookmarkmanager.repository.UserRepository;
+import com.bookmarkmanager.repository.UserSettingsRepository;
+import com.bookmarkmanager.util.NetscapeBookmarkParser;
+import com.bookmarkmanager.util.NetscapeBookmarkWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * 数据导入导出服务
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DataService {
 
-    private final BookmarkRepository bookmarkRepository;
-    private final CategoryRepository categoryRepository;
+    // NDJSON 导出文件 meta 行中的格式标识
+    private static final String NDJSON_FORMAT = "bookmark-manager-ndjson/1";
+
+    private final BookmarkService bookmarkService;
+    private final CategoryService categoryService;
+    private final SyncService syncService;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final BookmarkCounters bookmarkCounters;
+    private final BookmarkActivity bookmarkActivity;
+    private final UserRepository userRepository;
+    private final UserSettingsRepository userSettingsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 清空数据时每批删除的行数
+    @Value("${bookmark.clear.chunk-size:1000}")
+    private int clearChunkSize;
 
     /**
      * 导入数据
+     * <p>
+     * 流式解析上传的文件，分类和书签逐条交给导入会话，按批提交；文件格式错误时已提交的批次保留。
+     * 既接受导出文件中的数据对象，也接受带 ApiResponse 包装的完整导出响应。
      */
-    @Transactional
-    @SuppressWarnings("unchecked")
-    public Map<String, Integer> importData(Long userId, Map<String, Object> data) {
-        int importedCategories = 0;
-        int importedBookmarks = 0;
-
-        // 用于映射旧分类ID到新分类ID
-        Map<Object, Long> categoryIdMapping = new HashMap<>();
-
-        // 1. 导入分类
-        List<Map<String, Object>> categories = (List<Map<String, Object>>) data.get("categories");
-        if (categories != null && !categories.isEmpty()) {
-            // 获取当前最大排序号
-            Integer maxSortOrder = categoryRepository.findMaxSortOrderByUserId(userId);
-            
-            for (Map<String, Object> catData : categories) {
-                String name = (String) catData.get("name");
-                String icon = catData.get("icon") != null ? (String) catData.get("icon") : "📁";
-                Object oldId = catData.get("id");
-
-                // 检查是否已存在同名分类
-                Category existingCategory = categoryRepository.findByNameAndUserId(name, userId);
-                
-                if (existingCategory != null) {
-                    // 如果已存在同名分类，直接使用
-                    categoryIdMapping.put(oldId, existingCategory.getId());
-                } else {
-                    // 创建新分类
-                    maxSortOrder++;
-                    Category category = Category.builder()
-                            .userId(userId)
-                            .name(name)
-                            .icon(icon)
-                            .sortOrder(maxSortOrder)
-                            .build();
-                    category = categoryRepository.save(category);
-                    categoryIdMapping.put(oldId, category.getId());
-                    importedCategories++;
+    public Map<String, Integer> importData(BookmarkImporter.Session session, InputStream in) {
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new BusinessException("导入文件格式错误");
+            }
+            readImportFields(parser, session);
+        } catch (IOException e) {
+            session.finish();
+            throw new BusinessException("导入文件格式错误，已导入 " + session.importedBookmarks() + " 个书签");
+        }
+        return session.finish();
+    }
+
+    private void readImportFields(JsonParser parser, BookmarkImporter.Session session) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("categories".equals(field) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode node = parser.readValueAsTree();
+                    session.addCategory(new BookmarkImporter.CategoryRow(
+                            text(node, "id"), text(node, "name"), text(node, "icon")));
+                }
+                session.endCategories();
+            } else if ("bookmarks".equals(field) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode node = parser.readValueAsTree();
+                    session.addBookmark(new BookmarkImporter.BookmarkRow(text(node, "title"),
+                            text(node, "url"), text(node, "description"), text(node, "categoryId"), null));
                 }
+            } else if ("data".equals(field) && token == JsonToken.START_OBJECT) {
+                // 导出接口的 ApiResponse 包装
+                readImportFields(parser, session);
+            } else {
+                // 导出时间等其他字段不需要
+                parser.skipChildren();
             }
         }
+    }
 
-        // 2. 导入书签
-        List<Map<String, Object>> bookmarks = (List<Map<String, Object>>) data.get("bookmarks");
-        if (bookmarks != null && !bookmarks.isEmpty()) {
-            // 获取当前最大排序号
-            Integer maxSortOrder = bookmarkRepository.findMaxSortOrderByUserId(userId);
-            
-            for (Map<String, Object> bookmarkData : bookmarks) {
-                String title = (String) bookmarkData.get("title");
-                String url = (String) bookmarkData.get("url");
-                String description = bookmarkData.get("description") != null ? 
-                        (String) bookmarkData.get("description") : "";
-                
-                // 检查是否已存在相同URL的书签
-                if (bookmarkRepository.existsByUrlAndUserId(url, userId)) {
-                    continue; // 跳过重复的书签
+    /**
+     * 逐行导入 NDJSON（格式见 {@link #exportNdjson}）
+     * <p>
+     * 书签引用的分类需出现在书签之前；无法解析的行跳过并计入失败数，不影响其余行。
+     * 书签的 createdAt 会保留。
+     */
+    public Map<String, Integer> importNdjson(BookmarkImporter.Session session, InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        // 上次写入分类之后又出现了新的分类，遇到下一个书签前先写入
+        boolean categoriesPending = true;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    session.skipInvalid();
+                    continue;
+                }
+                String type = text(node, "type");
+                if ("category".equals(type)) {
+                    session.addCategory(new BookmarkImporter.CategoryRow(
+                            text(node, "id"), text(node, "name"), text(node, "icon")));
+                    categoriesPending = true;
+                } else if ("bookmark".equals(type)) {
+                    if (categoriesPending) {
+                        session.endCategories();
+                        categoriesPending = false;
+                    }
+                    session.addBookmark(new BookmarkImporter.BookmarkRow(text(node, "title"),
+                            text(node, "url"), text(node, "description"), text(node, "categoryId"),
+                            parseDateTime(text(node, "createdAt"))));
                 }
+            }
+        } catch (IOException e) {
+            session.finish();
+            throw new BusinessException("读取导入文件失败，已导入 " + session.importedBookmarks() + " 个书签");
+        }
+        return session.finish();
+    }
 
-                // 获取分类ID
-                Long categoryId = null;
-                Object oldCategoryId = bookmarkData.get("categoryId");
-                if (oldCategoryId != null) {
-                    categoryId = categoryIdMapping.get(oldCategoryId);
-                    // 如果通过旧ID映射找不到，尝试直接使用（如果是数字）
-                    if (categoryId == null && oldCategoryId instanceof Number) {
-                        Long directCategoryId = ((Number) oldCategoryId).longValue();
-                        // 检查该分类是否属于当前用户
-                        if (categoryRepository.findByIdAndUserId(directCategoryId, userId).isPresent()) {
-                            categoryId = directCategoryId;
-                        }
+    /**
+     * 导入浏览器书签 HTML（Netscape 格式）
+     * <p>
+     * 边解析边交给导入会话。文件夹映射为同名分类，嵌套文件夹取最内层，书签栏文件夹本身不建分类；
+     * ADD_DATE 保留为书签的添加时间。
+     */
+    public Map<String, Integer> importHtml(BookmarkImporter.Session session, InputStream in) {
+        // 当前所在的文件夹对应的分类名，不建分类的文件夹记为空串
+        Deque<String> folders = new ArrayDeque<>();
+        try {
+            Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+            NetscapeBookmarkParser.parse(reader, new NetscapeBookmarkParser.Handler() {
+                @Override
+                public void startFolder(String name, boolean toolbar) {
+                    String category = toolbar ? "" : truncate(name, 50);
+                    folders.push(category);
+                    if (!category.isEmpty()) {
+                        session.addCategory(new BookmarkImporter.CategoryRow(category, category, null));
+                        session.endCategories();
                     }
                 }
 
-                // 生成 favicon URL
-                String favicon = generateFaviconUrl(url);
-
-                maxSortOrder++;
-                Bookmark bookmark = Bookmark.builder()
-                        .userId(userId)
-                        .title(title)
-                        .url(url)
-                        .description(description)
-                        .favicon(favicon)
-                        .categoryId(categoryId)
-                        .sortOrder(maxSortOrder)
-                        .build();
-                
-                bookmarkRepository.save(bookmark);
-                importedBookmarks++;
-            }
+                @Override
+                public void endFolder() {
+                    folders.poll();
+                }
+
+                @Override
+                public void bookmark(String url, String title, String description, LocalDateTime addDate) {
+                    // 跳过 Firefox 的智能书签和书签小工具
+                    if (url == null || url.startsWith("place:") || url.startsWith("javascript:")) {
+                        return;
+                    }
+                    String category = folders.peek();
+                    session.addBookmark(new BookmarkImporter.BookmarkRow(
+                            truncate(title == null || title.isBlank() ? url : title, 100), url,
+                            truncate(description, 500),
+                            category == null || category.isEmpty() ? null : category, addDate));
+                }
+            });
+        } catch (IOException e) {
+            session.finish();
+            throw new BusinessException("读取导入文件失败，已导入 " + session.importedBookmarks() + " 个书签");
         }
+        return session.finish();
+    }
 
-        Map<String, Integer> result = new HashMap<>();
-        result.put("importedBookmarks", importedBookmarks);
-        result.put("importedCategories", importedCategories);
-        return result;
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
     }
 
-    private String generateFaviconUrl(String url) {
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null) {
+            return null;
+        }
         try {
-            java.net.URL parsedUrl = new java.net.URL(url);
-            String domain = parsedUrl.getHost();
-            return "https://www.google.com/s2/favicons?domain=" + domain + "&sz=64";
-        } catch (Exception e) {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
             return null;
         }
     }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * 导出数据
+     * <p>
+     * 按 ApiResponse 的格式直接写出 JSON：先写分类，再从数据库游标逐条写书签，整个过程不在内存中汇总。
+     * 分类在书签之前，重新导入时书签引用的分类都已建好，无需暂存。
+     */
+    public void exportData(Long userId, OutputStream out) throws IOException {
+        List<CategoryResponse> categories = categoryService.getCategories(userId);
+        Map<Long, String> categoryNames = new HashMap<>();
+        categories.forEach(category -> categoryNames.put(category.getId(), category.getName()));
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.writeStartObject();
+        generator.writeBooleanField("success", true);
+        generator.writeNumberField("code", 200);
+        generator.writeStringField("message", "导出成功");
+        generator.writeObjectFieldStart("data");
+        generator.writeObjectField("exportTime", LocalDateTime.now());
+        generator.writeArrayFieldStart("categories");
+        for (CategoryResponse category : categories) {
+            generator.writeObject(category);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("bookmarks");
+        writeBookmarks(userId, categoryNames, false, generator::writeObject);
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    /**
+     * 导出为 NDJSON：每行一个 JSON 对象，第一行是 meta，然后是所有分类，最后是所有书签
+     * <p>
+     * 每行只写导入需要的字段，空字段省略；可以逐行导入，也便于用命令行工具处理。
+     */
+    public void exportNdjson(Long userId, OutputStream out) throws IOException {
+        List<CategoryResponse> categories = categoryService.getCategories(userId);
+        Map<Long, String> categoryNames = new HashMap<>();
+        categories.forEach(category -> categoryNames.put(category.getId(), category.getName()));
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+        generator.writeStartObject();
+        generator.writeStringField("type", "meta");
+        generator.writeStringField("format", NDJSON_FORMAT);
+        generator.writeObjectField("exportTime", LocalDateTime.now());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        for (CategoryResponse category : categories) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "category");
+            generator.writeNumberField("id", category.getId());
+            generator.writeStringField("name", category.getName());
+            generator.writeStringField("icon", category.getIcon());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        writeBookmarks(userId, categoryNames, false, bookmark -> {
+            generator.writeStartObject();
+            generator.writeStringField("type", "bookmark");
+            generator.writeNumberField("id", bookmark.getId());
+            generator.writeStringField("title", bookmark.getTitle());
+            generator.writeStringField("url", bookmark.getUrl());
+            if (bookmark.getDescription() != null && !bookmark.getDescription().isEmpty()) {
+                generator.writeStringField("description", bookmark.getDescription());
+            }
+            if (bookmark.getCategoryId() != null) {
+                generator.writeNumberField("categoryId", bookmark.getCategoryId());
+            }
+            generator.writeObjectField("createdAt", bookmark.getCreatedAt());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+    }
+
+    /**
+     * 导出为浏览器书签 HTML（Netscape 格式）
+     * <p>
+     * 分类写成一层文件夹，未分类的书签在顶层；书签按分类分组从数据库游标读取，边读边写。
+     */
+    public void exportHtml(Long userId, OutputStream out) throws IOException {
+        Map<Long, CategoryResponse> categories = new LinkedHashMap<>();
+        Map<Long, String> categoryNames = new HashMap<>();
+        for (CategoryResponse category : categoryService.getCategories(userId)) {
+            categories.put(category.getId(), category);
+            categoryNames.put(category.getId(), category.getName());
+        }
+
+        NetscapeBookmarkWriter html = new NetscapeBookmarkWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        html.start();
+        Long[] currentCategory = {null};
+        writeBookmarks(userId, categoryNames, true, bookmark -> {
+            Long categoryId = bookmark.getCategoryId();
+            if (!Objects.equals(categoryId, currentCategory[0])) {
+                currentCategory[0] = categoryId;
+                CategoryResponse category = categoryId != null ? categories.remove(categoryId) : null;
+                if (category != null) {
+                    html.folder(category.getName(), category.getCreatedAt());
+                } else {
+                    html.endFolder();
+                }
+            }
+            html.bookmark(bookmark.getUrl(), bookmark.getTitle(), bookmark.getDescription(), bookmark.getCreatedAt());
+        });
+        // 没有书签的分类写成空文件夹
+        for (CategoryResponse category : categories.values()) {
+            html.folder(category.getName(), category.getCreatedAt());
+        }
+        html.end();
+    }
+
+    /**
+     * 写出单个书签，可以抛出 IOException
+     */
+    private interface BookmarkWriter {
+        void write(BookmarkResponse bookmark) throws IOException;
+    }
+
+    private void writeBookmarks(Long userId, Map<Long, String> categoryNames, boolean groupByCategory,
+                                BookmarkWriter writer) throws IOException {
+        try {
+            bookmarkService.forEachBookmark(userId, categoryNames, groupByCategory, bookmark -> {
+                try {
+                    writer.write(bookmark);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 后台清空用户的书签和分类，分批删除，每批单独提交并更新任务进度
+     */
+    @Async
+    public void clearAllData(DataClearJobs.Job job) {
+        Long userId = job.getUserId();
+        try {
+            bookmarkService.deleteAllBookmarksByUserId(userId, clearChunkSize, job::bookmarksDeleted);
+            categoryService.deleteAllCategoriesByUserId(userId, clearChunkSize, job::categoriesDeleted);
+            job.complete();
+        } catch (RuntimeException e) {
+            log.error("清空用户 {} 的数据失败", userId, e);
+            job.fail("清空失败，请重新提交");
+        } finally {
+            // 批量删除不写逐条墓碑，已删除的部分也要让其他设备全量刷新
+            syncService.recordReset(userId);
+        }
+    }
+
+    /**
+     * 后台清理已注销账户：分批删除书签和分类，最后在一个小事务中删除设置、同步墓碑和用户行
+     */
+    @Async
+    public void purgeAccount(AccountDeletionJobs.Job job) {
+        Long userId = job.getUserId();
+        try {
+            bookmarkService.deleteAllBookmarksByUserId(userId, clearChunkSize, job::bookmarksDeleted);
+            categoryService.deleteAllCategoriesByUserId(userId, clearChunkSize, job::categoriesDeleted);
+            transactionTemplate.executeWithoutResult(status -> {
+                userSettingsRepository.deleteByUserId(userId);
+                syncTombstoneRepository.deleteAllByUserId(userId);
+                bookmarkCounters.delete(userId);
+                bookmarkActivity.delete(userId);
+                userRepository.deleteById(userId);
+            });
+            job.complete();
+            log.info("已注销账户 {} 清理完成", userId);
+        } catch (RuntimeException e) {
+            log.error("清理已注销账户 {} 失败，下次启动时重试", userId, e);
+            job.fail("清理失败，将在服务重启后重试");
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.entity.Bookmark;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.util.SpaceSaving;
+import com.bookmarkmanager.util.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 全站站点统计
+ * <p>
+ * 所有用户书签的主机名放进一个 {@link SpaceSaving} 草图，取书签最多的站点时不必对 bookmarks 全表分组，
+ * 内存只与草图容量有关。新增书签在事务提交后加入草图；草图不支持减少，删除的书签在下次重建时才扣除。
+ * 首次查询时流式读取全部主机名建立草图，之后每天定时重建一次，完成后替换当前草图。
+ */
+@Slf4j
+@Component
+public class DomainStatistics {
+
+    private final BookmarkRepository bookmarkRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int capacity;
+
+    private volatile SpaceSaving sketch;
+    // 正在进行的重建，没有重建时为 null；与新增书签的取用由 rebuildLock 保护
+    private Rebuild rebuilding;
+    private final Object rebuildLock = new Object();
+    private volatile LocalDateTime rebuiltAt;
+
+    public DomainStatistics(BookmarkRepository bookmarkRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${bookmark.statistics.domains.sketch-capacity:1000}") int capacity) {
+        this.bookmarkRepository = bookmarkRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.capacity = capacity;
+        this.sketch = new SpaceSaving(capacity);
+    }
+
+    /**
+     * 记录新增的书签（书签须已保存，host 已填充），在当前事务提交后加入草图
+     */
+    public void added(Collection<Bookmark> bookmarks) {
+        List<Bookmark> withHost = new ArrayList<>(bookmarks.size());
+        for (Bookmark bookmark : bookmarks) {
+            if (bookmark.getHost() != null) {
+                withHost.add(bookmark);
+            }
+        }
+        if (withHost.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            SpaceSaving current;
+            Rebuild next;
+            synchronized (rebuildLock) {
+                current = sketch;
+                next = rebuilding;
+            }
+            for (Bookmark bookmark : withHost) {
+                current.offer(bookmark.getHost());
+                // 高水位以内的书签由重建的扫描计入，只补记之后的
+                if (next != null && bookmark.getId() > next.highWater) {
+                    next.sketch.offer(bookmark.getHost());
+                }
+            }
+        });
+    }
+
+    /**
+     * 当前草图，调用方读取计数和内存占用；还没有建立过时先建立
+     */
+    public SpaceSaving sketch() {
+        if (rebuiltAt == null) {
+            synchronized (this) {
+                if (rebuiltAt == null) {
+                    rebuild();
+                }
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * 上次重建完成的时间，还没有重建过时为 null
+     */
+    public LocalDateTime rebuiltAt() {
+        return rebuiltAt;
+    }
+
+    /**
+     * 每天定时重建；还没有人查询过时草图尚未建立，不必重建
+     */
+    @Scheduled(cron = "${bookmark.statistics.domains.rebuild-cron:0 0 4 * * *}")
+    public synchronized void scheduledRebuild() {
+        if (rebuiltAt != null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 流式读取高水位以内全部书签的主机名重建草图
+     * <p>
+     * 高水位在登记重建时读取，之后提交的新书签只要 ID 更大就由 {@link #added} 补记，不会被扫描再计一次。
+     * ID 在高水位以内、但在扫描开始后才提交的少量书签（其他实例预分配的ID）要到下次重建才计入。
+     */
+    public synchronized void rebuild() {
+        SpaceSaving fresh = new SpaceSaving(capacity);
+        try {
+            Rebuild rebuild;
+            synchronized (rebuildLock) {
+                rebuild = new Rebuild(fresh, bookmarkRepository.findMaxId());
+                rebuilding = rebuild;
+            }
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> hosts = bookmarkRepository.streamHostsUpTo(rebuild.highWater)) {
+                    hosts.forEach(fresh::offer);
+                }
+            });
+            synchronized (rebuildLock) {
+                sketch = fresh;
+                rebuilding = null;
+            }
+            rebuiltAt = LocalDateTime.now();
+            log.info("全站站点草图重建完成：{} 个书签，跟踪 {} 个站点，约 {} 字节",
+                    fresh.total(), fresh.size(), fresh.estimatedBytes());
+        } catch (RuntimeException e) {
+            log.error("重建全站站点草图失败，继续使用当前草图", e);
+            synchronized (rebuildLock) {
+                rebuilding = null;
+            }
+        }
+    }
+
+    /**
+     * 进行中的重建：新草图和扫描的高水位（最大书签ID）
+     */
+    private record Rebuild(SpaceSaving sketch, long highWater) {
+    }
+}
@@ -0,0 +1,328 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.dto.data.ImportJobResponse;
+import com.bookmarkmanager.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 导入任务登记表和调度器
+ * <p>
+ * 上传的文件原样（包括 gzip 压缩的文件）先落到临时文件，登记任务后立即返回，由固定数量的导入线程在后台处理，客户端凭任务ID轮询进度。
+ * 每个用户有自己的排队队列，同一用户的任务依次执行（导入会话的内存查重要求同一用户不能并发导入）；
+ * 有任务的用户按轮转顺序分配线程，一个用户提交再多任务也只占一个线程。
+ * 任务状态只保存在内存中，结束一小时后清理；重启后排队中的任务丢失，已提交的批次保留。
+ */
+@Slf4j
+@Component
+public class ImportJobs {
+
+    // 已结束任务的保留时间
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private final BookmarkImporter bookmarkImporter;
+    private final DataService dataService;
+    private final ExecutorService executor;
+    private final int maxQueuedPerUser;
+    private final long maxBodySize;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    // 以下调度状态由 this 锁保护
+    private final Map<Long, Queue<Job>> queuesByUser = new HashMap<>();
+    // 有排队任务且没有任务在执行的用户，按轮转顺序取出
+    private final Queue<Long> readyUsers = new ArrayDeque<>();
+
+    public ImportJobs(BookmarkImporter bookmarkImporter,
+                      DataService dataService,
+                      @Value("${bookmark.import.workers:2}") int workers,
+                      @Value("${bookmark.import.max-queued-per-user:3}") int maxQueuedPerUser,
+                      @Value("${bookmark.import.max-body-size:104857600}") long maxBodySize) {
+        this.bookmarkImporter = bookmarkImporter;
+        this.dataService = dataService;
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.maxBodySize = maxBodySize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 把上传内容写入临时文件并登记导入任务
+     *
+     * @param format json、ndjson 或 html
+     */
+    public ImportJobResponse submit(Long userId, String format, InputStream body) throws IOException {
+        purgeFinished();
+        // 写文件前先检查排队数，已达上限的用户不再占用磁盘
+        synchronized (this) {
+            checkQueueLimit(userId);
+        }
+        Path file = Files.createTempFile("bookmark-upload-", "." + format);
+        try {
+            copyLimited(body, file);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return submit(userId, format, file);
+    }
+
+    /**
+     * 登记导入任务，file 的所有权交给任务，执行结束或登记失败时删除
+     */
+    public ImportJobResponse submit(Long userId, String format, Path file) {
+        Job job = new Job(UUID.randomUUID().toString(), userId, format, file);
+        boolean schedule;
+        synchronized (this) {
+            try {
+                checkQueueLimit(userId);
+            } catch (BusinessException e) {
+                deleteQuietly(file);
+                throw e;
+            }
+            Queue<Job> queue = queuesByUser.get(userId);
+            // 用户没有排队或执行中的任务时，加入轮转队列
+            schedule = queue == null;
+            if (schedule) {
+                queue = new ArrayDeque<>();
+                queuesByUser.put(userId, queue);
+                readyUsers.add(userId);
+            }
+            queue.add(job);
+            jobs.put(job.id, job);
+        }
+        if (schedule) {
+            executor.execute(this::runNext);
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * 查询任务状态，只能查询自己的任务
+     */
+    public ImportJobResponse get(Long userId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            throw new BusinessException(404, "任务不存在");
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 取轮转队列中的下一个用户，执行其最早的一个任务；每次用户进入轮转队列都对应提交一次
+     */
+    private void runNext() {
+        Job job;
+        synchronized (this) {
+            Long userId = readyUsers.poll();
+            if (userId == null) {
+                return;
+            }
+            job = queuesByUser.get(userId).peek();
+        }
+
+        boolean schedule;
+        try {
+            run(job);
+        } finally {
+            synchronized (this) {
+                Queue<Job> queue = queuesByUser.get(job.userId);
+                queue.poll();
+                // 还有任务就排到轮转队列末尾，让其他用户先执行
+                schedule = !queue.isEmpty();
+                if (schedule) {
+                    readyUsers.add(job.userId);
+                } else {
+                    queuesByUser.remove(job.userId);
+                }
+            }
+        }
+        if (schedule) {
+            executor.execute(this::runNext);
+        }
+    }
+
+    private void run(Job job) {
+        BookmarkImporter.Session session = null;
+        try (InputStream in = openUpload(job.file)) {
+            session = bookmarkImporter.open(job.userId);
+            job.start(session);
+            switch (job.format) {
+                case "html" -> dataService.importHtml(session, in);
+                case "ndjson" -> dataService.importNdjson(session, in);
+                default -> dataService.importData(session, in);
+            }
+            job.complete();
+        } catch (BusinessException e) {
+            job.fail(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.error("用户 {} 的导入任务 {} 失败", job.userId, job.id, e);
+            job.fail(session != null
+                    ? "导入失败，已导入 " + session.importedBookmarks() + " 个书签"
+                    : "导入失败，请重新提交");
+        } finally {
+            deleteQuietly(job.file);
+        }
+    }
+
+    /**
+     * 打开上传的文件，gzip 压缩的文件（按文件头识别）自动解压
+     */
+    private static InputStream openUpload(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(in, 8192);
+        }
+        return in;
+    }
+
+    private void purgeFinished() {
+        LocalDateTime threshold = LocalDateTime.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    /**
+     * 用户排队和执行中的任务数已达上限时拒绝，调用方持有 this 锁
+     */
+    private void checkQueueLimit(Long userId) {
+        Queue<Job> queue = queuesByUser.get(userId);
+        if (queue != null && queue.size() >= maxQueuedPerUser) {
+            throw new BusinessException(429, "导入任务过多，请等待之前的导入完成");
+        }
+    }
+
+    private void copyLimited(InputStream in, Path target) throws IOException {
+        long total = 0;
+        byte[] buffer = new byte[8192];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBodySize) {
+                    throw new BusinessException(413, "导入文件不能超过 " + maxBodySize + " 字节，请使用分片上传");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 单个导入任务的状态，只由执行线程更新，请求线程读取
+     */
+    private static final class Job {
+
+        private final String id;
+        private final Long userId;
+        private final String format;
+        private final Path file;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile String status = "QUEUED";
+        // 执行中从会话读取实时计数，结束后只保留计数，释放会话占用的查重集合
+        private volatile BookmarkImporter.Session session;
+        private volatile int[] finalCounts;
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        private Job(String id, Long userId, String format, Path file) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+            this.file = file;
+        }
+
+        private void start(BookmarkImporter.Session session) {
+            this.session = session;
+            startedAt = LocalDateTime.now();
+            status = "RUNNING";
+        }
+
+        private void complete() {
+            release();
+            status = "COMPLETED";
+            finishedAt = LocalDateTime.now();
+        }
+
+        private void fail(String message) {
+            release();
+            error = message;
+            status = "FAILED";
+            finishedAt = LocalDateTime.now();
+        }
+
+        private void release() {
+            if (session != null) {
+                finalCounts = counts(session);
+                session = null;
+            }
+        }
+
+        private static int[] counts(BookmarkImporter.Session session) {
+            return new int[]{session.importedBookmarks(), session.importedCategories(),
+                    session.duplicateBookmarks(), session.failedBookmarks()};
+        }
+
+        private ImportJobResponse toResponse() {
+            BookmarkImporter.Session current = session;
+            int[] counts = current != null ? counts(current) : finalCounts;
+            ImportJobResponse.ImportJobResponseBuilder response = ImportJobResponse.builder()
+                    .jobId(id)
+                    .format(format)
+                    .status(status)
+                    .error(error)
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt);
+            if (counts != null) {
+                response.processedBookmarks(counts[0] + counts[2] + counts[3])
+                        .importedBookmarks(counts[0])
+                        .importedCategories(counts[1])
+                        .duplicateBookmarks(counts[2])
+                        .failedBookmarks(counts[3]);
+            }
+            return response.build();
+        }
+    }
+}
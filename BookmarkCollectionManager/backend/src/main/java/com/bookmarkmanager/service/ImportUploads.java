@@ -0,0 +1,338 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.dto.data.ImportJobResponse;
+import com.bookmarkmanager.dto.data.ImportUploadResponse;
+import com.bookmarkmanager.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 导入文件分片上传登记表
+ * <p>
+ * 大文件分片上传：先创建上传，再按编号（从 1 开始）逐个上传分片，最后按分片数完成上传。
+ * 每个分片先写临时文件，完整收到后才改名登记，断线时只需查询已收到的分片并补传其余部分，重复上传同一编号会覆盖。
+ * 完成时用 {@link FileChannel#transferTo} 把分片依次拼接成一个文件（由内核直接拷贝，不经过堆内存），
+ * 交给 {@link ImportJobs} 作为普通导入任务执行。上传状态只保存在内存中，长时间没有新分片的上传会被丢弃；
+ * 重启后未完成的上传丢失，启动时清理残留的分片文件。
+ */
+@Slf4j
+@Component
+public class ImportUploads {
+
+    private static final Set<String> FORMATS = Set.of("json", "ndjson", "html");
+
+    private final ImportJobs importJobs;
+    private final Path baseDir;
+    private final long maxPartSize;
+    private final int maxParts;
+    private final int maxUploadsPerUser;
+    private final Duration expiry;
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    public ImportUploads(ImportJobs importJobs,
+                         @Value("${bookmark.import.upload.dir:}") String dir,
+                         @Value("${bookmark.import.upload.max-part-size:8388608}") long maxPartSize,
+                         @Value("${bookmark.import.upload.max-parts:1000}") int maxParts,
+                         @Value("${bookmark.import.upload.max-per-user:3}") int maxUploadsPerUser,
+                         @Value("${bookmark.import.upload.expiry-hours:24}") long expiryHours) throws IOException {
+        this.importJobs = importJobs;
+        this.baseDir = dir.isEmpty()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "bookmark-uploads")
+                : Path.of(dir);
+        this.maxPartSize = maxPartSize;
+        this.maxParts = maxParts;
+        this.maxUploadsPerUser = maxUploadsPerUser;
+        this.expiry = Duration.ofHours(expiryHours);
+
+        Files.createDirectories(baseDir);
+        // 上次运行留下的上传已经无法继续；目录可能由运维指定为共用目录，只清理本类创建的上传目录
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(baseDir, ImportUploads::isUploadDir)) {
+            for (Path leftover : leftovers) {
+                deleteDirectory(leftover);
+            }
+        }
+    }
+
+    /**
+     * 创建分片上传
+     *
+     * @param format json、ndjson 或 html
+     */
+    public synchronized ImportUploadResponse initiate(Long userId, String format) throws IOException {
+        if (!FORMATS.contains(format)) {
+            throw new BusinessException("不支持的导入格式: " + format);
+        }
+        long active = uploads.values().stream().filter(upload -> upload.userId.equals(userId)).count();
+        if (active >= maxUploadsPerUser) {
+            throw new BusinessException(429, "未完成的上传过多，请先完成或取消之前的上传");
+        }
+
+        String id = UUID.randomUUID().toString();
+        Upload upload = new Upload(id, userId, format, Files.createDirectory(baseDir.resolve(id)));
+        uploads.put(id, upload);
+        return upload.toResponse();
+    }
+
+    /**
+     * 上传一个分片，请求体为分片原始内容
+     */
+    public ImportUploadResponse uploadPart(Long userId, String uploadId, int partNumber, InputStream body)
+            throws IOException {
+        Upload upload = find(userId, uploadId);
+        if (partNumber < 1 || partNumber > maxParts) {
+            throw new BusinessException("分片编号应在 1 到 " + maxParts + " 之间");
+        }
+
+        // 先写临时文件，写完整后再改名，断线留下的半个分片不会被当作已收到
+        Path temp;
+        try {
+            temp = Files.createTempFile(upload.dir, "receiving-", ".tmp");
+        } catch (NoSuchFileException e) {
+            // 上传刚被完成、取消或过期清理
+            throw new BusinessException(404, "上传不存在或已过期");
+        }
+        try {
+            long size = copyLimited(body, temp);
+            synchronized (upload) {
+                if (upload.closed) {
+                    throw new BusinessException(409, "上传已完成或已取消");
+                }
+                Files.move(temp, upload.partFile(partNumber),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                upload.received(partNumber, size);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return upload.toResponse();
+    }
+
+    /**
+     * 查询上传状态，只能查询自己的上传
+     */
+    public ImportUploadResponse get(Long userId, String uploadId) {
+        return find(userId, uploadId).toResponse();
+    }
+
+    /**
+     * 完成上传：校验 1 到 totalParts 的分片都已收到，拼接后提交导入任务
+     * <p>
+     * 提交失败（如导入任务过多）时分片保留，稍后可以再次完成。
+     */
+    public ImportJobResponse complete(Long userId, String uploadId, int totalParts) throws IOException {
+        Upload upload = find(userId, uploadId);
+        synchronized (upload) {
+            if (upload.closed) {
+                throw new BusinessException(409, "上传已完成或已取消");
+            }
+            upload.checkComplete(totalParts);
+
+            Path file = Files.createTempFile("bookmark-upload-", "." + upload.format);
+            try {
+                assemble(upload, totalParts, file);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            ImportJobResponse job = importJobs.submit(userId, upload.format, file);
+            close(upload);
+            return job;
+        }
+    }
+
+    /**
+     * 取消上传并删除已收到的分片
+     */
+    public void abort(Long userId, String uploadId) {
+        Upload upload = find(userId, uploadId);
+        synchronized (upload) {
+            close(upload);
+        }
+    }
+
+    /**
+     * 丢弃长时间没有新分片的上传
+     */
+    @Scheduled(fixedDelayString = "${bookmark.import.upload.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime threshold = LocalDateTime.now().minus(expiry);
+        for (Upload upload : uploads.values()) {
+            if (upload.lastActivityAt.isBefore(threshold)) {
+                synchronized (upload) {
+                    close(upload);
+                }
+                log.info("用户 {} 的分片上传 {} 已过期", upload.userId, upload.id);
+            }
+        }
+    }
+
+    private Upload find(Long userId, String uploadId) {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null || !upload.userId.equals(userId)) {
+            throw new BusinessException(404, "上传不存在或已过期");
+        }
+        return upload;
+    }
+
+    private void close(Upload upload) {
+        upload.closed = true;
+        uploads.remove(upload.id);
+        deleteDirectory(upload.dir);
+    }
+
+    private long copyLimited(InputStream in, Path target) throws IOException {
+        long total = 0;
+        byte[] buffer = new byte[8192];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxPartSize) {
+                    throw new BusinessException(413, "分片大小不能超过 " + maxPartSize + " 字节");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 按编号顺序把分片拼接到 target；transferTo 单次可能只拷贝一部分，循环到拷贝完为止
+     */
+    private static void assemble(Upload upload, int totalParts, Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int partNumber = 1; partNumber <= totalParts; partNumber++) {
+                try (FileChannel part = FileChannel.open(upload.partFile(partNumber), StandardOpenOption.READ)) {
+                    long size = part.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += part.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 是否是本类创建的上传目录：以上传ID（UUID）命名的目录
+     */
+    private static boolean isUploadDir(Path path) {
+        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+        String name = path.getFileName().toString();
+        try {
+            return UUID.fromString(name).toString().equals(name);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 删除上传目录中的分片和接收中的临时文件，再删除目录；有其他文件时目录保留
+     */
+    private static void deleteDirectory(Path dir) {
+        try {
+            if (Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "{part-*,receiving-*.tmp}")) {
+                    for (Path file : files) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            log.warn("删除分片上传目录失败: {}", dir, e);
+        }
+    }
+
+    /**
+     * 单个分片上传的状态，分片表和 closed 由 this 锁保护
+     */
+    private final class Upload {
+
+        private final String id;
+        private final Long userId;
+        private final String format;
+        private final Path dir;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile LocalDateTime lastActivityAt = createdAt;
+        // 分片编号 -> 字节数
+        private final TreeMap<Integer, Long> parts = new TreeMap<>();
+        private boolean closed;
+
+        private Upload(String id, Long userId, String format, Path dir) {
+            this.id = id;
+            this.userId = userId;
+            this.format = format;
+            this.dir = dir;
+        }
+
+        private Path partFile(int partNumber) {
+            return dir.resolve("part-" + partNumber);
+        }
+
+        private void received(int partNumber, long size) {
+            parts.put(partNumber, size);
+            lastActivityAt = LocalDateTime.now();
+        }
+
+        private void checkComplete(int totalParts) {
+            if (totalParts < 1 || totalParts > maxParts) {
+                throw new BusinessException("分片数应在 1 到 " + maxParts + " 之间");
+            }
+            if (!parts.isEmpty() && parts.lastKey() > totalParts) {
+                throw new BusinessException("已收到编号为 " + parts.lastKey() + " 的分片，与分片数不符");
+            }
+            List<Integer> missing = new ArrayList<>();
+            for (int partNumber = 1; partNumber <= totalParts && missing.size() < 20; partNumber++) {
+                if (!parts.containsKey(partNumber)) {
+                    missing.add(partNumber);
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new BusinessException("分片未上传完整，缺少: " + missing);
+            }
+        }
+
+        private synchronized ImportUploadResponse toResponse() {
+            long receivedBytes = 0;
+            for (long size : parts.values()) {
+                receivedBytes += size;
+            }
+            return ImportUploadResponse.builder()
+                    .uploadId(id)
+                    .format(format)
+                    .receivedParts(new ArrayList<>(parts.keySet()))
+                    .receivedBytes(receivedBytes)
+                    .maxPartSize(maxPartSize)
+                    .createdAt(createdAt)
+                    .expiresAt(lastActivityAt.plus(expiry))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.exception.BusinessException;
+import com.bookmarkmanager.repository.SortKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 稀疏排序键服务
+ * <p>
+ * 书签和分类的 sortOrder 以 GAP 为间隔分配，移动时取前后两行排序号的中点，通常只改写被移动的一行。
+ * 间隙用尽时在附近少量行内重新均匀分布，并在事务提交后由后台任务把更大范围的邻近行重新拉开间隙。
+ */
+@Slf4j
+@Service
+public class SortKeyService {
+
+    // 相邻两行的默认排序号间隔
+    public static final int GAP = 1024;
+
+    // 间隙用尽时同步重排的最大行数
+    private static final int WINDOW = 64;
+
+    // 后台重排时移动位置前后各取的行数
+    private static final int REBALANCE_RADIUS = 256;
+
+    /**
+     * 一个按 (sortOrder, id) 升序排列的列表
+     */
+    public interface RankedList {
+
+        /**
+         * from 之后的最多 limit 行（升序），不含 excludeId
+         */
+        List<SortKey> following(SortKey from, Long excludeId, int limit);
+
+        /**
+         * from 之前的最多 limit 行（降序，离 from 最近的在前），不含 excludeId
+         */
+        List<SortKey> preceding(SortKey from, Long excludeId, int limit);
+
+        /**
+         * 批量写入新的排序号
+         */
+        void update(Map<Long, Integer> sortOrders);
+    }
+
+    /**
+     * 移动结果
+     *
+     * @param sortOrders 被改写的排序号（ID -> 排序号）
+     * @param crowded    是否发生了间隙用尽，需要后台重排
+     */
+    public record Placement(Map<Long, Integer> sortOrders, boolean crowded) {
+    }
+
+    /**
+     * 将 movedId 移动到 anchor 之前（before=true）或之后，并写入新的排序号
+     */
+    public Placement place(RankedList list, Long movedId, SortKey anchor, boolean before) {
+        Placement placement = tryPlace(list, movedId, anchor, before);
+        if (placement == null) {
+            // 附近 WINDOW 行内都没有空间，先同步做一次更大范围的重排再试
+            Map<Long, Integer> respaced = respaceAround(list, anchor);
+            SortKey respacedAnchor = new SortKey(anchor.id(), respaced.getOrDefault(anchor.id(), anchor.sortOrder()));
+            placement = tryPlace(list, movedId, respacedAnchor, before);
+        }
+        if (placement == null) {
+            throw new BusinessException(409, "排序空间不足，请稍后重试");
+        }
+        list.update(placement.sortOrders());
+        return placement;
+    }
+
+    /**
+     * 后台重排 center 附近的行，恢复排序号间隙
+     */
+    @Async
+    @Transactional
+    public void rebalanceAround(RankedList list, SortKey center) {
+        Map<Long, Integer> sortOrders = respaceAround(list, center);
+        log.debug("后台重排排序号: {} 行", sortOrders.size());
+    }
+
+    private Placement tryPlace(RankedList list, Long movedId, SortKey anchor, boolean before) {
+        SortKey lower = anchor;
+        if (before) {
+            List<SortKey> previous = list.preceding(anchor, movedId, 1);
+            if (previous.isEmpty()) {
+                // 移到最前面
+                long key = (long) anchor.sortOrder() - GAP;
+                return key >= Integer.MIN_VALUE ? single(movedId, key) : null;
+            }
+            lower = previous.get(0);
+        }
+
+        long lo = lower.sortOrder();
+        List<SortKey> next = list.following(lower, movedId, WINDOW + 1);
+        if (next.isEmpty()) {
+            // 移到最后面
+            long key = lo + GAP;
+            return key <= Integer.MAX_VALUE ? single(movedId, key) : null;
+        }
+        if (next.get(0).sortOrder() - lo >= 2) {
+            return single(movedId, lo + (next.get(0).sortOrder() - lo) / 2);
+        }
+
+        // 间隙用尽：找到第一个能容纳 被移动行 + 前面 m 行 的区间，均匀分布进去
+        for (int m = 1; m < next.size(); m++) {
+            long upper = next.get(m).sortOrder();
+            if (upper - lo >= 2L * (m + 1)) {
+                return new Placement(spread(movedId, next.subList(0, m), lo, upper), true);
+            }
+        }
+        if (next.size() <= WINDOW) {
+            // 已经到列表末尾，向后扩展
+            long upper = Math.min(Integer.MAX_VALUE, (long) next.get(next.size() - 1).sortOrder() + GAP);
+            if (upper - lo >= 2L * (next.size() + 1)) {
+                return new Placement(spread(movedId, next, lo, upper), true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 以 center 为中心，前后各 REBALANCE_RADIUS 行在外侧邻居之间均匀分布
+     */
+    private Map<Long, Integer> respaceAround(RankedList list, SortKey center) {
+        List<SortKey> before = list.preceding(center, center.id(), REBALANCE_RADIUS + 1);
+        List<SortKey> after = list.following(center, center.id(), REBALANCE_RADIUS + 1);
+
+        List<SortKey> window = new ArrayList<>(before.subList(0, Math.min(before.size(), REBALANCE_RADIUS)));
+        Collections.reverse(window);
+        window.add(center);
+        window.addAll(after.subList(0, Math.min(after.size(), REBALANCE_RADIUS)));
+
+        int n = window.size();
+        long lower = before.size() > REBALANCE_RADIUS
+                ? before.get(REBALANCE_RADIUS).sortOrder()
+                : Math.max(Integer.MIN_VALUE, (long) window.get(0).sortOrder() - (long) GAP * n);
+        long upper = after.size() > REBALANCE_RADIUS
+                ? after.get(REBALANCE_RADIUS).sortOrder()
+                : Math.min(Integer.MAX_VALUE, (long) window.get(n - 1).sortOrder() + (long) GAP * n);
+        if (upper - lower < n + 1) {
+            return Map.of();
+        }
+
+        Map<Long, Integer> sortOrders = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            sortOrders.put(window.get(i).id(), (int) (lower + (upper - lower) * (i + 1) / (n + 1)));
+        }
+        list.update(sortOrders);
+        return sortOrders;
+    }
+
+    private Placement single(Long movedId, long key) {
+        return new Placement(Map.of(movedId, (int) key), false);
+    }
+
+    /**
+     * 被移动行排在最前，与 rows 一起均匀分布在 (lower, upper) 开区间内
+     */
+    private Map<Long, Integer> spread(Long movedId, List<SortKey> rows, long lower, long upper) {
+        int n = rows.size() + 1;
+        Map<Long, Integer> sortOrders = new HashMap<>();
+        sortOrders.put(movedId, (int) (lower + (upper - lower) / (n + 1)));
+        for (int i = 0; i < rows.size(); i++) {
+            sortOrders.put(rows.get(i).id(), (int) (lower + (upper - lower) * (i + 2) / (n + 1)));
+        }
+        return sortOrders;
+    }
+}
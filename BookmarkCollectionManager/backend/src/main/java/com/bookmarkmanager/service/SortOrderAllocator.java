@@ -0,0 +1,141 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.exception.BusinessException;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.repository.CategoryRepository;
+import com.bookmarkmanager.util.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 排序号分配器（按用户的内存计数器，首次使用时从 MAX(sort_order) 初始化）
+ */
+@Component
+public class SortOrderAllocator {
+
+    private final Sequence bookmarks;
+    private final Sequence categories;
+
+    public SortOrderAllocator(BookmarkRepository bookmarkRepository, CategoryRepository categoryRepository) {
+        this.bookmarks = new Sequence(bookmarkRepository::findMaxSortOrderByUserId);
+        this.categories = new Sequence(categoryRepository::findMaxSortOrderByUserId);
+    }
+
+    /**
+     * 书签排序号序列
+     */
+    public Sequence bookmarks() {
+        return bookmarks;
+    }
+
+    /**
+     * 分类排序号序列
+     */
+    public Sequence categories() {
+        return categories;
+    }
+
+    /**
+     * 单张表的按用户排序号序列
+     */
+    public static final class Sequence {
+
+        // 计数器只在本实例内存中，多实例部署时互不可见
+        private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+        private final Function<Long, Integer> seeder;
+
+        private Sequence(Function<Long, Integer> seeder) {
+            this.seeder = seeder;
+        }
+
+        /**
+         * 分配一个排在末尾的排序号，须在写入该排序号的事务中调用
+         */
+        public int next(Long userId) {
+            return reserve(userId, 1);
+        }
+
+        /**
+         * 一次预留 count 个排序号，返回第一个，其余依次加 GAP；须在写入这些排序号的事务中调用，事务结束后才不再算作进行中
+         */
+        public int reserve(Long userId, int count) {
+            long span = (long) count * SortKeyService.GAP;
+            Counter counter = counters.computeIfAbsent(userId, id -> new Counter());
+            long last;
+            synchronized (counter) {
+                if (counter.stale && counter.inFlight == 0) {
+                    counter.seeded = false;
+                }
+                if (!counter.seeded) {
+                    counter.value = seeder.apply(userId);
+                    counter.seeded = true;
+                    counter.stale = false;
+                }
+                last = counter.value + span;
+                if (last > Integer.MAX_VALUE) {
+                    // 计数器只增不减，整体重排后数据库里可能已经腾出空间；还有进行中的分配时不能低于已分配的位置
+                    long seed = seeder.apply(userId);
+                    counter.value = counter.inFlight == 0 ? seed : Math.max(seed, counter.value);
+                    last = counter.value + span;
+                    if (last > Integer.MAX_VALUE) {
+                        throw new BusinessException(409, "排序空间不足，请先调整排序");
+                    }
+                }
+                counter.value = last;
+                counter.inFlight++;
+            }
+            TransactionHooks.afterCompletion(() -> {
+                synchronized (counter) {
+                    counter.inFlight--;
+                }
+            });
+            return (int) (last - span + SortKeyService.GAP);
+        }
+
+        /**
+         * 排序号被其他途径（如调整位置）写到末尾之后时，推进计数器避免重复
+         */
+        public void advance(Long userId, int sortOrder) {
+            Counter counter = counters.get(userId);
+            if (counter != null) {
+                synchronized (counter) {
+                    if (counter.seeded) {
+                        counter.value = Math.max(counter.value, sortOrder);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 在当前事务提交后让用户的计数器失效，下次分配时重新从数据库初始化；
+         * 仍有进行中的分配时等它们结束后再重新初始化，以免新种子低于还没提交的排序号
+         */
+        public void reset(Long userId) {
+            TransactionHooks.afterCommit(() -> {
+                Counter counter = counters.get(userId);
+                if (counter != null) {
+                    synchronized (counter) {
+                        counter.stale = true;
+                    }
+                }
+            });
+        }
+
+        /**
+         * 单个用户的计数器状态，由自身的锁保护；对象放入后不再移除，重新初始化只改状态
+         */
+        private static final class Counter {
+
+            // 已分配的最大排序号
+            private long value;
+            private boolean seeded;
+            // 已失效，进行中的分配结束后重新初始化
+            private boolean stale;
+            // 已分配但所在事务还没结束的次数；这些排序号数据库里还看不到，重新初始化时不能只看 MAX(sort_order)
+            private int inFlight;
+        }
+    }
+}
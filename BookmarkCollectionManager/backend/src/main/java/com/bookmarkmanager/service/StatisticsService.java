@@ -1,17 +1,31 @@
 package com.bookmarkmanager.service;
 
+import com.bookmarkmanager.dto.statistics.DomainStat;
+import com.bookmarkmanager.dto.statistics.GlobalDomainsResponse;
 import com.bookmarkmanager.dto.statistics.StatisticsResponse;
-import com.bookmarkmanager.entity.Bookmark;
+import com.bookmarkmanager.dto.statistics.TimelineResponse;
+import com.bookmarkmanager.entity.BookmarkDailyActivity;
 import com.bookmarkmanager.entity.Category;
+import com.bookmarkmanager.entity.UserBookmarkCount;
+import com.bookmarkmanager.exception.BusinessException;
+import com.bookmarkmanager.repository.BookmarkDailyActivityRepository;
 import com.bookmarkmanager.repository.BookmarkRepository;
 import com.bookmarkmanager.repository.CategoryRepository;
+import com.bookmarkmanager.repository.DomainCount;
+import com.bookmarkmanager.security.AdminUsers;
+import com.bookmarkmanager.util.SpaceSaving;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 统计服务
@@ -20,43 +34,46 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class StatisticsService {
 
+    // 时间线最多返回的时间段数
+    private static final int MAX_TIMELINE_POINTS = 366;
+
+    // 站点排行最多返回的条数
+    private static final int MAX_DOMAINS = 100;
+
     private final BookmarkRepository bookmarkRepository;
     private final CategoryRepository categoryRepository;
+    private final BookmarkCounters bookmarkCounters;
+    private final BookmarkDailyActivityRepository bookmarkDailyActivityRepository;
+    private final DomainStatistics domainStatistics;
+    private final AdminUsers adminUsers;
 
     /**
      * 获取统计概览
+     * <p>
+     * 总数、未分类数和各分类书签数直接读维护好的计数（{@link BookmarkCounters}），今日新增按创建时间范围计数，不加载书签；
+     * 查询次数固定为三次，与书签数和分类数无关；放在同一个只读事务中，三次查询看到同一快照。
      */
+    @Transactional(readOnly = true)
     public StatisticsResponse getStatistics(Long userId) {
-        // 获取用户的所有书签
-        List<Bookmark> bookmarks = bookmarkRepository.findByUserIdOrderBySortOrderAsc(userId);
-        
-        // 获取用户的所有分类
-        List<Category> categories = categoryRepository.findByUserIdOrderBySortOrderAsc(userId);
+        UserBookmarkCount userCounts = bookmarkCounters.find(userId);
 
         // 统计今日新增
         LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        long todayAdded = bookmarks.stream()
-                .filter(b -> b.getCreatedAt() != null && b.getCreatedAt().isAfter(todayStart))
-                .count();
-
-        // 统计各分类书签数量
-        List<StatisticsResponse.CategoryStat> categoryStats = categories.stream()
-                .map(category -> {
-                    long count = bookmarks.stream()
-                            .filter(b -> category.getId().equals(b.getCategoryId()))
-                            .count();
-                    return StatisticsResponse.CategoryStat.builder()
-                            .categoryId(category.getId())
-                            .categoryName(category.getName())
-                            .count(count)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        long todayAdded = bookmarkRepository.countByUserIdAndCreatedAtGreaterThanEqual(userId, todayStart);
+
+        // 统计各分类书签数量（按分类顺序，没有书签的分类计为 0）
+        List<Category> categories = categoryRepository.findByUserIdOrderBySortOrderAsc(userId);
+        List<StatisticsResponse.CategoryStat> categoryStats = new ArrayList<>(categories.size() + 1);
+        for (Category category : categories) {
+            categoryStats.add(StatisticsResponse.CategoryStat.builder()
+                    .categoryId(category.getId())
+                    .categoryName(category.getName())
+                    .count(BookmarkCounters.countOf(category))
+                    .build());
+        }
 
         // 添加未分类统计
-        long uncategorizedCount = bookmarks.stream()
-                .filter(b -> b.getCategoryId() == null)
-                .count();
+        long uncategorizedCount = userCounts.getUncategorizedCount();
         if (uncategorizedCount > 0) {
             categoryStats.add(StatisticsResponse.CategoryStat.builder()
                     .categoryId(null)
@@ -66,10 +83,116 @@ public class StatisticsService {
         }
 
         return StatisticsResponse.builder()
-                .totalBookmarks(bookmarks.size())
+                .totalBookmarks(userCounts.getTotalCount())
                 .totalCategories(categories.size())
                 .todayAdded(todayAdded)
                 .categoryStats(categoryStats)
                 .build();
     }
+
+    /**
+     * 获取书签活动时间线
+     * <p>
+     * 只读 [from, to] 范围内的活动日汇总（每天至多一行），按粒度在内存中合并，耗时只与时间范围有关，与书签数无关。
+     *
+     * @param from        开始日期，为空时按粒度取最近 30 天、12 周或 12 个月
+     * @param to          结束日期（包含），为空时为今天
+     * @param granularity day、week 或 month
+     */
+    @Transactional(readOnly = true)
+    public TimelineResponse getTimeline(Long userId, LocalDate from, LocalDate to, String granularity) {
+        ChronoUnit unit = switch (granularity) {
+            case "day" -> ChronoUnit.DAYS;
+            case "week" -> ChronoUnit.WEEKS;
+            case "month" -> ChronoUnit.MONTHS;
+            default -> throw new BusinessException("不支持的时间粒度: " + granularity);
+        };
+        if (to == null) {
+            to = LocalDate.now();
+        }
+        if (from == null) {
+            from = to.minus(unit == ChronoUnit.DAYS ? 29 : 11, unit);
+        }
+        if (from.isAfter(to)) {
+            throw new BusinessException("开始日期不能晚于结束日期");
+        }
+        LocalDate firstStart = bucketStart(from, unit);
+        if (unit.between(firstStart, bucketStart(to, unit)) >= MAX_TIMELINE_POINTS) {
+            throw new BusinessException("时间范围过大，最多 " + MAX_TIMELINE_POINTS + " 个时间段");
+        }
+
+        List<TimelineResponse.Point> points = new ArrayList<>();
+        for (LocalDate start = firstStart; !start.isAfter(to); start = start.plus(1, unit)) {
+            points.add(TimelineResponse.Point.builder().start(start).build());
+        }
+        List<BookmarkDailyActivity> rows =
+                bookmarkDailyActivityRepository.findByUserIdAndActivityDateBetweenOrderByActivityDateAsc(userId, from, to);
+        for (BookmarkDailyActivity row : rows) {
+            TimelineResponse.Point point = points.get((int) unit.between(firstStart, bucketStart(row.getActivityDate(), unit)));
+            point.setAdded(point.getAdded() + row.getAddedCount());
+            point.setDeleted(point.getDeleted() + row.getDeletedCount());
+        }
+
+        return TimelineResponse.builder()
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .points(points)
+                .build();
+    }
+
+    /**
+     * 获取用户书签最多的站点（精确值）
+     * <p>
+     * 在 (user_id, host) 索引上按主机名分组计数，只返回前 limit 个。
+     */
+    public List<DomainStat> getTopDomains(Long userId, int limit) {
+        checkDomainLimit(limit);
+        List<DomainStat> domains = new ArrayList<>(limit);
+        for (DomainCount row : bookmarkRepository.countByUserIdGroupByHost(userId, PageRequest.of(0, limit))) {
+            domains.add(DomainStat.builder().host(row.host()).count(row.count()).build());
+        }
+        return domains;
+    }
+
+    /**
+     * 获取全站书签最多的站点（近似值，仅管理员）
+     * <p>
+     * 直接读内存中的 Space-Saving 草图，不查询数据库；同时返回草图的容量和估算内存占用。
+     */
+    public GlobalDomainsResponse getGlobalTopDomains(Long userId, int limit) {
+        adminUsers.check(userId);
+        checkDomainLimit(limit);
+        SpaceSaving sketch = domainStatistics.sketch();
+        List<GlobalDomainsResponse.Domain> domains = new ArrayList<>(limit);
+        for (SpaceSaving.Entry entry : sketch.top(limit)) {
+            domains.add(GlobalDomainsResponse.Domain.builder()
+                    .host(entry.item())
+                    .count(entry.count())
+                    .error(entry.error())
+                    .build());
+        }
+        return GlobalDomainsResponse.builder()
+                .domains(domains)
+                .totalBookmarks(sketch.total())
+                .capacity(sketch.capacity())
+                .trackedDomains(sketch.size())
+                .estimatedBytes(sketch.estimatedBytes())
+                .rebuiltAt(domainStatistics.rebuiltAt())
+                .build();
+    }
+
+    private static void checkDomainLimit(int limit) {
+        if (limit < 1 || limit > MAX_DOMAINS) {
+            throw new BusinessException("limit 应在 1 到 " + MAX_DOMAINS + " 之间");
+        }
+    }
+
+    private static LocalDate bucketStart(LocalDate day, ChronoUnit unit) {
+        return switch (unit) {
+            case WEEKS -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHS -> day.withDayOfMonth(1);
+            default -> day;
+        };
+    }
 }
@@ -0,0 +1,153 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.dto.category.CategoryResponse;
+import com.bookmarkmanager.dto.sync.SyncResponse;
+import com.bookmarkmanager.entity.SyncTombstone;
+import com.bookmarkmanager.exception.BusinessException;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.repository.SyncTombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 增量同步服务
+ * <p>
+ * 令牌是服务器时间的不透明编码。同步时返回 updated_at 不早于令牌时间的书签和分类，以及之后写入的删除墓碑。
+ * updated_at 在事务提交前就已写入，晚提交的事务可能带着比令牌更早的时间，因此查询时间向前回看一段重叠窗口，
+ * 重叠部分会重复返回，客户端按ID覆盖即可。令牌早于墓碑保留期、变更过多或期间清空过数据时要求全量刷新。
+ */
+@Slf4j
+@Service
+public class SyncService {
+
+    private final BookmarkRepository bookmarkRepository;
+    private final CategoryService categoryService;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final Duration overlap;
+    private final Duration tombstoneRetention;
+    private final int maxChanges;
+
+    public SyncService(BookmarkRepository bookmarkRepository,
+                       CategoryService categoryService,
+                       SyncTombstoneRepository syncTombstoneRepository,
+                       @Value("${bookmark.sync.overlap-seconds:5}") long overlapSeconds,
+                       @Value("${bookmark.sync.tombstone-retention-days:30}") long tombstoneRetentionDays,
+                       @Value("${bookmark.sync.max-changes:5000}") int maxChanges) {
+        this.bookmarkRepository = bookmarkRepository;
+        this.categoryService = categoryService;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.overlap = Duration.ofSeconds(overlapSeconds);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+        this.maxChanges = maxChanges;
+    }
+
+    /**
+     * 获取令牌之后的变更
+     * <p>
+     * since 为空时只返回当前令牌并要求全量刷新；客户端应先取令牌再拉取全量数据，之后的变更由下次同步补上。
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse getChanges(Long userId, String since) {
+        // 令牌取查询开始前的时间，查询期间的写入留给下次同步
+        LocalDateTime now = LocalDateTime.now();
+        String token = encodeToken(now);
+        if (since == null || since.isEmpty()) {
+            return fullRefresh(token);
+        }
+        LocalDateTime from = decodeToken(since).minus(overlap);
+        if (from.isBefore(now.minus(tombstoneRetention))) {
+            return fullRefresh(token);
+        }
+
+        List<Long> deletedBookmarkIds = new ArrayList<>();
+        List<Long> deletedCategoryIds = new ArrayList<>();
+        for (SyncTombstone tombstone : syncTombstoneRepository.findByUserIdAndDeletedAtGreaterThanEqual(userId, from)) {
+            switch (tombstone.getEntityType()) {
+                case SyncTombstone.BOOKMARK -> deletedBookmarkIds.add(tombstone.getEntityId());
+                case SyncTombstone.CATEGORY -> deletedCategoryIds.add(tombstone.getEntityId());
+                default -> {
+                    return fullRefresh(token);
+                }
+            }
+        }
+        if (deletedBookmarkIds.size() > maxChanges) {
+            return fullRefresh(token);
+        }
+
+        // 多取一条判断是否超过上限，超过时全量刷新比逐条下发更省
+        List<BookmarkResponse> bookmarks = bookmarkRepository.findChangedSince(
+                userId, from, PageRequest.of(0, maxChanges - deletedBookmarkIds.size() + 1));
+        if (bookmarks.size() + deletedBookmarkIds.size() > maxChanges) {
+            return fullRefresh(token);
+        }
+        List<CategoryResponse> categories = categoryService.getCategoriesUpdatedSince(userId, from);
+
+        return SyncResponse.builder()
+                .token(token)
+                .fullRefresh(false)
+                .bookmarks(bookmarks)
+                .categories(categories)
+                .deletedBookmarkIds(deletedBookmarkIds)
+                .deletedCategoryIds(deletedCategoryIds)
+                .build();
+    }
+
+    /**
+     * 记录用户数据已被清空，之前的令牌都需要全量刷新
+     */
+    public void recordReset(Long userId) {
+        syncTombstoneRepository.batchInsert(userId, SyncTombstone.RESET, List.of(0L));
+    }
+
+    /**
+     * 清理超过保留期的墓碑
+     */
+    @Scheduled(fixedDelayString = "${bookmark.sync.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = syncTombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.debug("清理过期删除墓碑: {} 条", purged);
+        }
+    }
+
+    private SyncResponse fullRefresh(String token) {
+        return SyncResponse.builder()
+                .token(token)
+                .fullRefresh(true)
+                .bookmarks(List.of())
+                .categories(List.of())
+                .deletedBookmarkIds(List.of())
+                .deletedCategoryIds(List.of())
+                .build();
+    }
+
+    private String encodeToken(LocalDateTime time) {
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(millis).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LocalDateTime decodeToken(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(raw)), ZoneId.systemDefault());
+        } catch (RuntimeException e) {
+            throw new BusinessException("同步令牌无效");
+        }
+    }
+}
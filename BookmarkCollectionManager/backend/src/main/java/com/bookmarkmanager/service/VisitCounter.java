@@ -0,0 +1,136 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.repository.VisitDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 书签访问计数器（写回缓冲）
+ * <p>
+ * 每次访问只在内存中给对应书签的 LongAdder 加一，定时把累积的次数批量写回 bookmarks 表，
+ * 应用正常关闭时再刷写一次。进程异常退出会丢失最后一个周期内的访问。
+ * <p>
+ * frecency 以对数形式保存：一次访问的得分为 (访问时间 - 基准时间) / τ，τ 由半衰期换算，
+ * 多次访问的得分做 log-sum-exp 合并。所有书签随时间等比例衰减，排序不变，因此无需定期重算。
+ */
+@Slf4j
+@Component
+public class VisitCounter {
+
+    // frecency 得分的基准时间
+    private static final long EPOCH_SECONDS = LocalDateTime.of(2026, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private final BookmarkRepository bookmarkRepository;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    // 上一周期摘下的缓冲，下一周期补写摘下之后才落到它上面的访问
+    private List<Pending> retired = List.of();
+
+    // 衰减时间常数（秒），得分每经过一个半衰期减半
+    private final double tauSeconds;
+
+    public VisitCounter(BookmarkRepository bookmarkRepository,
+                        @Value("${bookmark.visit.half-life-days:30}") double halfLifeDays) {
+        this.bookmarkRepository = bookmarkRepository;
+        this.tauSeconds = halfLifeDays * 86400 / Math.log(2);
+    }
+
+    /**
+     * 记录一次访问
+     */
+    public void record(Long bookmarkId) {
+        Pending entry = pending.computeIfAbsent(bookmarkId, Pending::new);
+        // 先写时间再计数，刷写线程读到计数时一定能看到对应的访问时间
+        entry.lastVisitedAt = System.currentTimeMillis();
+        entry.visits.increment();
+    }
+
+    /**
+     * 把累积的访问次数批量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${bookmark.visit.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Map<Long, VisitDelta> deltas = new HashMap<>();
+        for (Pending entry : retired) {
+            collect(entry, deltas);
+        }
+
+        List<Pending> drained = new ArrayList<>(pending.size());
+        for (Long bookmarkId : pending.keySet()) {
+            Pending entry = pending.remove(bookmarkId);
+            if (entry != null) {
+                collect(entry, deltas);
+                drained.add(entry);
+            }
+        }
+        retired = drained;
+
+        if (!deltas.isEmpty()) {
+            bookmarkRepository.batchRecordVisits(new ArrayList<>(deltas.values()));
+            log.debug("刷写书签访问计数: {} 个书签", deltas.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        // 最后一次刷写摘下的缓冲也要补写
+        flush();
+    }
+
+    private void collect(Pending entry, Map<Long, VisitDelta> deltas) {
+        long total = entry.visits.sum();
+        long visits = total - entry.flushed;
+        if (visits <= 0) {
+            return;
+        }
+        entry.flushed = total;
+
+        long visitedAt = entry.lastVisitedAt;
+        double score = Math.log(visits) + (visitedAt / 1000.0 - EPOCH_SECONDS) / tauSeconds;
+        deltas.merge(entry.bookmarkId, new VisitDelta(entry.bookmarkId, visits, toDateTime(visitedAt), score),
+                (a, b) -> new VisitDelta(a.id(), a.visits() + b.visits(),
+                        a.lastVisitedAt().isAfter(b.lastVisitedAt()) ? a.lastVisitedAt() : b.lastVisitedAt(),
+                        logSumExp(a.score(), b.score())));
+    }
+
+    private static double logSumExp(double a, double b) {
+        return Math.max(a, b) + Math.log1p(Math.exp(-Math.abs(a - b)));
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 单个书签的待写回访问
+     */
+    private static final class Pending {
+
+        private final Long bookmarkId;
+        private final LongAdder visits = new LongAdder();
+        private volatile long lastVisitedAt;
+        // 已写回的次数，只由刷写线程读写
+        private long flushed;
+
+        private Pending(Long bookmarkId) {
+            this.bookmarkId = bookmarkId;
+        }
+    }
+}
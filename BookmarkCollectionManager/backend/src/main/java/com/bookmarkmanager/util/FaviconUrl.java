@@ -0,0 +1,27 @@
+package com.bookmarkmanager.util;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * 书签图标地址工具
+ * <p>
+ * 按 URL 的主机名生成 Google favicon 服务地址，新建、修改和导入书签共用；URL 无法解析时返回 null。
+ */
+public final class FaviconUrl {
+
+    private FaviconUrl() {
+    }
+
+    public static String of(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            String domain = new URL(url).getHost();
+            return "https://www.google.com/s2/favicons?domain=" + domain + "&sz=64";
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.bookmarkmanager.util;
+
+/**
+ * long 开放寻址哈希集合
+ * <p>
+ * 直接存放原始 long，每个元素约 8~16 字节，比 HashSet&lt;Long&gt; 省去装箱和链表节点。
+ * 用于导入时在内存中对 URL 哈希查重。非线程安全。
+ */
+public final class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // 0 作为空槽标记，元素 0 单独记录
+    private long[] slots;
+    private boolean containsZero;
+    private int size;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        slots = new long[capacity];
+    }
+
+    /**
+     * 加入元素，集合中原本没有时返回 true
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != 0) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        if (++size > slots.length * LOAD_FACTOR) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != 0) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 移除元素，之后探测链上的元素向前回填，保证查找不被空槽截断
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            boolean removed = containsZero;
+            containsZero = false;
+            if (removed) {
+                size--;
+            }
+            return removed;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != value) {
+            if (slots[index] == 0) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (slots[next] != 0) {
+            int home = mix(slots[next]) & mask;
+            // home 不在 (gap, next] 区间内时，该元素可以移到空位上
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[gap] = 0;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length << 1];
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value != 0) {
+                int index = mix(value) & mask;
+                while (slots[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,378 @@
+package com.bookmarkmanager.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 浏览器书签 HTML（Netscape Bookmark File）流式解析器
+ * <p>
+ * Chrome、Firefox、Edge 导出的书签文件都是这种格式：文件夹是 &lt;DT&gt;&lt;H3&gt; 加随后的 &lt;DL&gt;，
+ * 书签是 &lt;DT&gt;&lt;A HREF ADD_DATE&gt;，&lt;DD&gt; 后面是描述。这里逐字符读取标签和文本，
+ * 边读边回调，不构建 DOM，内存占用与文件大小无关。格式不规范时尽量容错，不会抛出解析错误。
+ */
+public final class NetscapeBookmarkParser {
+
+    /**
+     * 解析事件回调
+     */
+    public interface Handler {
+
+        /**
+         * 进入文件夹，toolbar 表示浏览器的书签栏文件夹
+         */
+        void startFolder(String name, boolean toolbar);
+
+        void endFolder();
+
+        /**
+         * 一个书签，addDate 和 description 可能为空
+         */
+        void bookmark(String url, String title, String description, LocalDateTime addDate);
+    }
+
+    private final Reader reader;
+    private final Handler handler;
+
+    // 读取缓冲
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    // 每个 <DL> 是否对应一个已回调 startFolder 的文件夹
+    private final Deque<Boolean> lists = new ArrayDeque<>();
+    // 读到 </H3> 但还没遇到对应的 <DL>
+    private boolean folderPending;
+
+    // 正在收集文本的元素：H3、A 或 DD
+    private String capturing;
+    private final StringBuilder text = new StringBuilder();
+    private String folderName;
+    private boolean folderToolbar;
+
+    // 已读完 <A> 但可能还有 <DD> 描述的书签
+    private String pendingUrl;
+    private String pendingTitle;
+    private LocalDateTime pendingAddDate;
+    private String pendingDescription;
+
+    private NetscapeBookmarkParser(Reader reader, Handler handler) {
+        this.reader = reader;
+        this.handler = handler;
+    }
+
+    public static void parse(Reader reader, Handler handler) throws IOException {
+        new NetscapeBookmarkParser(reader, handler).run();
+    }
+
+    private void run() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '<') {
+                readTag();
+            } else if (capturing != null) {
+                text.append((char) c);
+            }
+        }
+        flushBookmark();
+        closeEmptyFolder();
+        while (!lists.isEmpty()) {
+            if (lists.pop()) {
+                handler.endFolder();
+            }
+        }
+    }
+
+    private void readTag() throws IOException {
+        StringBuilder tag = new StringBuilder();
+        char quote = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = (char) c;
+            } else if (c == '>') {
+                break;
+            }
+            tag.append((char) c);
+            // 注释和 DOCTYPE 直接跳过
+            if (tag.length() == 3 && tag.toString().equals("!--")) {
+                skipComment();
+                return;
+            }
+        }
+        if (tag.length() == 0 || tag.charAt(0) == '!' || tag.charAt(0) == '?') {
+            return;
+        }
+
+        boolean closing = tag.charAt(0) == '/';
+        int nameStart = closing ? 1 : 0;
+        int nameEnd = nameStart;
+        while (nameEnd < tag.length() && !Character.isWhitespace(tag.charAt(nameEnd)) && tag.charAt(nameEnd) != '/') {
+            nameEnd++;
+        }
+        String name = tag.substring(nameStart, nameEnd).toUpperCase(Locale.ROOT);
+        if (closing) {
+            endTag(name);
+        } else {
+            startTag(name, parseAttributes(tag, nameEnd));
+        }
+    }
+
+    private void startTag(String name, Map<String, String> attributes) {
+        switch (name) {
+            case "DT" -> {
+                flushBookmark();
+                closeEmptyFolder();
+            }
+            case "DL" -> {
+                flushBookmark();
+                lists.push(folderPending);
+                folderPending = false;
+            }
+            case "H3" -> {
+                flushBookmark();
+                closeEmptyFolder();
+                folderToolbar = "true".equalsIgnoreCase(attributes.get("PERSONAL_TOOLBAR_FOLDER"));
+                capture(name);
+            }
+            case "A" -> {
+                flushBookmark();
+                closeEmptyFolder();
+                pendingUrl = attributes.get("HREF");
+                pendingAddDate = parseAddDate(attributes.get("ADD_DATE"));
+                capture(name);
+            }
+            case "DD" -> {
+                if (pendingUrl != null) {
+                    capture(name);
+                }
+            }
+            default -> {
+                // <p>、<H1> 等标签不影响结构；描述在下一个结构标签前结束
+                if ("DD".equals(capturing) && !"BR".equals(name)) {
+                    endCapture();
+                }
+            }
+        }
+    }
+
+    private void endTag(String name) {
+        switch (name) {
+            case "H3" -> {
+                if ("H3".equals(capturing)) {
+                    folderName = endCapture();
+                    handler.startFolder(folderName, folderToolbar);
+                    folderPending = true;
+                }
+            }
+            case "A" -> {
+                if ("A".equals(capturing)) {
+                    pendingTitle = endCapture();
+                }
+            }
+            case "DL" -> {
+                flushBookmark();
+                closeEmptyFolder();
+                if (!lists.isEmpty() && lists.pop()) {
+                    handler.endFolder();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void capture(String name) {
+        if ("DD".equals(capturing)) {
+            endCapture();
+        }
+        capturing = name;
+        text.setLength(0);
+    }
+
+    private String endCapture() {
+        String value = decodeEntities(text.toString()).strip();
+        if ("DD".equals(capturing)) {
+            pendingDescription = value;
+        }
+        capturing = null;
+        text.setLength(0);
+        return value;
+    }
+
+    private void flushBookmark() {
+        if ("DD".equals(capturing) || "A".equals(capturing)) {
+            String value = endCapture();
+            if (pendingTitle == null && pendingDescription == null) {
+                pendingTitle = value;
+            }
+        }
+        if (pendingUrl != null) {
+            String description = pendingDescription == null || pendingDescription.isEmpty() ? null : pendingDescription;
+            handler.bookmark(decodeEntities(pendingUrl), pendingTitle, description, pendingAddDate);
+        }
+        pendingUrl = null;
+        pendingTitle = null;
+        pendingAddDate = null;
+        pendingDescription = null;
+    }
+
+    /**
+     * 文件夹标题后面没有 &lt;DL&gt;（空文件夹）时直接结束它
+     */
+    private void closeEmptyFolder() {
+        if (folderPending) {
+            folderPending = false;
+            handler.endFolder();
+        }
+    }
+
+    private void skipComment() throws IOException {
+        int dashes = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '>' && dashes >= 2) {
+                return;
+            }
+            dashes = c == '-' ? dashes + 1 : 0;
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private static Map<String, String> parseAttributes(CharSequence tag, int start) {
+        Map<String, String> attributes = new HashMap<>();
+        int i = start;
+        int length = tag.length();
+        while (i < length) {
+            while (i < length && (Character.isWhitespace(tag.charAt(i)) || tag.charAt(i) == '/')) {
+                i++;
+            }
+            int nameStart = i;
+            while (i < length && tag.charAt(i) != '=' && !Character.isWhitespace(tag.charAt(i))) {
+                i++;
+            }
+            if (i == nameStart) {
+                break;
+            }
+            String name = tag.subSequence(nameStart, i).toString().toUpperCase(Locale.ROOT);
+            while (i < length && Character.isWhitespace(tag.charAt(i))) {
+                i++;
+            }
+            String value = "";
+            if (i < length && tag.charAt(i) == '=') {
+                i++;
+                while (i < length && Character.isWhitespace(tag.charAt(i))) {
+                    i++;
+                }
+                if (i < length && (tag.charAt(i) == '"' || tag.charAt(i) == '\'')) {
+                    char quote = tag.charAt(i++);
+                    int valueStart = i;
+                    while (i < length && tag.charAt(i) != quote) {
+                        i++;
+                    }
+                    value = tag.subSequence(valueStart, i).toString();
+                    i++;
+                } else {
+                    int valueStart = i;
+                    while (i < length && !Character.isWhitespace(tag.charAt(i))) {
+                        i++;
+                    }
+                    value = tag.subSequence(valueStart, i).toString();
+                }
+            }
+            attributes.put(name, value);
+        }
+        return attributes;
+    }
+
+    /**
+     * ADD_DATE 是 Unix 时间戳，一般为秒，个别浏览器写毫秒或微秒
+     */
+    private static LocalDateTime parseAddDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            long timestamp = Long.parseLong(value.strip());
+            if (timestamp <= 0) {
+                return null;
+            }
+            while (timestamp > 100_000_000_000L) {
+                timestamp /= 1000;
+            }
+            return LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp), ZoneId.systemDefault());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String decodeEntities(String value) {
+        int amp = value.indexOf('&');
+        if (amp < 0) {
+            return value;
+        }
+        StringBuilder decoded = new StringBuilder(value.length());
+        decoded.append(value, 0, amp);
+        int i = amp;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            int semicolon = c == '&' ? value.indexOf(';', i) : -1;
+            if (semicolon > i && semicolon - i <= 10) {
+                String entity = value.substring(i + 1, semicolon);
+                String replacement = switch (entity) {
+                    case "amp" -> "&";
+                    case "lt" -> "<";
+                    case "gt" -> ">";
+                    case "quot" -> "\"";
+                    case "apos", "#39" -> "'";
+                    case "nbsp" -> " ";
+                    default -> decodeNumeric(entity);
+                };
+                if (replacement != null) {
+                    decoded.append(replacement);
+                    i = semicolon + 1;
+                    continue;
+                }
+            }
+            decoded.append(c);
+            i++;
+        }
+        return decoded.toString();
+    }
+
+    private static String decodeNumeric(String entity) {
+        if (entity.length() < 2 || entity.charAt(0) != '#') {
+            return null;
+        }
+        try {
+            int codePoint = entity.charAt(1) == 'x' || entity.charAt(1) == 'X'
+                    ? Integer.parseInt(entity.substring(2), 16)
+                    : Integer.parseInt(entity.substring(1));
+            return Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
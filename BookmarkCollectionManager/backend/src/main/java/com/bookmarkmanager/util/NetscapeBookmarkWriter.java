@@ -0,0 +1,114 @@
+package com.bookmarkmanager.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 浏览器书签 HTML（Netscape Bookmark File）写出器
+ * <p>
+ * 按调用顺序直接写到输出流，生成的文件可以导入 Chrome、Firefox、Edge，也可以由
+ * {@link NetscapeBookmarkParser} 重新读入。文件夹只有一层，书签必须按文件夹分组写出。
+ */
+public final class NetscapeBookmarkWriter {
+
+    private final Writer out;
+    private boolean inFolder;
+
+    public NetscapeBookmarkWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void start() throws IOException {
+        out.write("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n");
+        out.write("<!-- This is an automatically generated file.\n");
+        out.write("     It will be read and overwritten.\n");
+        out.write("     DO NOT EDIT! -->\n");
+        out.write("<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=UTF-8\">\n");
+        out.write("<TITLE>Bookmarks</TITLE>\n");
+        out.write("<H1>Bookmarks</H1>\n");
+        out.write("<DL><p>\n");
+    }
+
+    /**
+     * 开始一个文件夹，上一个文件夹自动结束
+     */
+    public void folder(String name, LocalDateTime addDate) throws IOException {
+        endFolder();
+        out.write("    <DT><H3");
+        writeDate(addDate);
+        out.write('>');
+        out.write(escape(name));
+        out.write("</H3>\n    <DL><p>\n");
+        inFolder = true;
+    }
+
+    public void bookmark(String url, String title, String description, LocalDateTime addDate) throws IOException {
+        out.write(inFolder ? "        <DT><A HREF=\"" : "    <DT><A HREF=\"");
+        out.write(escape(url));
+        out.write('"');
+        writeDate(addDate);
+        out.write('>');
+        out.write(escape(title));
+        out.write("</A>\n");
+        if (description != null && !description.isEmpty()) {
+            out.write(inFolder ? "        <DD>" : "    <DD>");
+            out.write(escape(description));
+            out.write('\n');
+        }
+    }
+
+    public void end() throws IOException {
+        endFolder();
+        out.write("</DL><p>\n");
+        out.flush();
+    }
+
+    /**
+     * 结束当前文件夹，之后的书签写在顶层
+     */
+    public void endFolder() throws IOException {
+        if (inFolder) {
+            out.write("    </DL><p>\n");
+            inFolder = false;
+        }
+    }
+
+    private void writeDate(LocalDateTime dateTime) throws IOException {
+        if (dateTime != null) {
+            out.write(" ADD_DATE=\"");
+            out.write(Long.toString(dateTime.atZone(ZoneId.systemDefault()).toEpochSecond()));
+            out.write('"');
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\n', '\r' -> " ";
+                default -> null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : value;
+    }
+}
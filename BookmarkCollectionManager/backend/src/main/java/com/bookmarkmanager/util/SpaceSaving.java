@@ -0,0 +1,117 @@
+package com.bookmarkmanager.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving 高频项草图
+ * <p>
+ * 最多跟踪 capacity 个项：已跟踪的项计数加一；未跟踪时若已满，替换计数最小的项，新项继承其计数并记为误差。
+ * 某项的真实出现次数在 [count - error, count] 之间，且任何真实次数超过 total / capacity 的项一定被跟踪。
+ * 内存只与 capacity 有关，与输入的总数和不同项的个数无关。只支持增加，不支持减少。线程安全。
+ */
+public final class SpaceSaving {
+
+    // 每个跟踪项除字符串内容外的大致内存：计数对象、HashMap 节点、TreeSet 节点、字符串对象头
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    // 按 (计数, 更新顺序) 升序，第一个即下一个被替换的项
+    private final TreeSet<Counter> byCount = new TreeSet<>(
+            Comparator.comparingLong((Counter c) -> c.count).thenComparingLong(c -> c.seq));
+    private long seq;
+    private long total;
+    private long itemChars;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity 必须大于 0");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    public synchronized void offer(String item) {
+        total++;
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count++;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(item, 1, 0);
+            counters.put(item, counter);
+            itemChars += item.length();
+        } else {
+            counter = byCount.pollFirst();
+            counters.remove(counter.item);
+            itemChars += item.length() - counter.item.length();
+            counter.error = counter.count;
+            counter.count++;
+            counter.item = item;
+            counters.put(item, counter);
+        }
+        counter.seq = ++seq;
+        byCount.add(counter);
+    }
+
+    /**
+     * 计数最大的 k 个项，按计数降序
+     */
+    public synchronized List<Entry> top(int k) {
+        List<Entry> entries = new ArrayList<>(Math.min(k, counters.size()));
+        for (Counter counter : byCount.descendingSet()) {
+            if (entries.size() == k) {
+                break;
+            }
+            entries.add(new Entry(counter.item, counter.count, counter.error));
+        }
+        return entries;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    /**
+     * 累计加入的项数
+     */
+    public synchronized long total() {
+        return total;
+    }
+
+    /**
+     * 估算的内存占用（字节），按每项固定开销加字符串长度计算，不是实测值
+     */
+    public synchronized long estimatedBytes() {
+        return (long) counters.size() * ENTRY_OVERHEAD_BYTES + itemChars;
+    }
+
+    /**
+     * 草图中的一项：真实次数在 [count - error, count] 之间
+     */
+    public record Entry(String item, long count, long error) {
+    }
+
+    private static final class Counter {
+
+        private String item;
+        private long count;
+        private long error;
+        private long seq;
+
+        private Counter(String item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
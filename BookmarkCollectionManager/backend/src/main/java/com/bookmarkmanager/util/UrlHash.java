@@ -0,0 +1,30 @@
+package com.bookmarkmanager.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * URL 哈希工具
+ * <p>
+ * 取 URL 的 SHA-256 前 8 个字节作为 64 位哈希，存入 bookmarks.url_hash 用于索引查重。
+ * 修改算法需要同时重算存量数据。
+ */
+public final class UrlHash {
+
+    private UrlHash() {
+    }
+
+    public static long of(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
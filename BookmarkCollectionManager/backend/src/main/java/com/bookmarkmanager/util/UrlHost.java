@@ -0,0 +1,61 @@
+package com.bookmarkmanager.util;
+
+import java.util.Locale;
+
+/**
+ * URL 主机名工具
+ * <p>
+ * 取 URL 中 "://" 之后、第一个 / ? # 之前的主机名，去掉用户信息和端口，转为小写并去掉开头的 "www."，
+ * 存入 bookmarks.host 用于按站点统计。没有 "://" 的地址（如 javascript:）没有主机名。
+ * 修改规则需要同时重算存量数据。
+ */
+public final class UrlHost {
+
+    public static final int MAX_LENGTH = 255;
+
+    private UrlHost() {
+    }
+
+    public static String of(String url) {
+        if (url == null) {
+            return null;
+        }
+        int start = url.indexOf("://");
+        if (start < 0) {
+            return null;
+        }
+        start += 3;
+        int end = url.length();
+        for (int i = start; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#' || c == '\\') {
+                end = i;
+                break;
+            }
+        }
+
+        String authority = url.substring(start, end);
+        int at = authority.lastIndexOf('@');
+        if (at >= 0) {
+            authority = authority.substring(at + 1);
+        }
+        String host;
+        if (authority.startsWith("[")) {
+            // IPv6 地址，端口在 ] 之后
+            int close = authority.indexOf(']');
+            host = close > 0 ? authority.substring(0, close + 1) : authority;
+        } else {
+            int colon = authority.indexOf(':');
+            host = colon >= 0 ? authority.substring(0, colon) : authority;
+        }
+
+        host = host.toLowerCase(Locale.ROOT);
+        if (host.endsWith(".")) {
+            host = host.substring(0, host.length() - 1);
+        }
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        return host.isEmpty() || host.length() > MAX_LENGTH ? null : host;
+    }
+}
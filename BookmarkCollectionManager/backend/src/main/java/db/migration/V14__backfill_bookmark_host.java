@@ -0,0 +1,44 @@
+package db.migration;
+
+import com.bookmarkmanager.util.UrlHost;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 回填存量书签的 host（主机名规则在 Java 端，与新写入的书签保持一致）
+ */
+public class V14__backfill_bookmark_host extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, url FROM bookmarks WHERE host IS NULL");
+             PreparedStatement update = connection.prepareStatement("UPDATE bookmarks SET host = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rows.next()) {
+                String host = UrlHost.of(rows.getString("url"));
+                if (host == null) {
+                    continue;
+                }
+                update.setString(1, host);
+                update.setLong(2, rows.getLong("id"));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package db.migration;
+
+import com.bookmarkmanager.util.UrlHash;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 回填存量书签的 url_hash（哈希算法在 Java 端，无法用纯 SQL 计算）
+ */
+public class V3__backfill_bookmark_url_hash extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, url FROM bookmarks WHERE url_hash IS NULL");
+             PreparedStatement update = connection.prepareStatement("UPDATE bookmarks SET url_hash = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rows.next()) {
+                update.setLong(1, UrlHash.of(rows.getString("url")));
+                update.setLong(2, rows.getLong("id"));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 将存量书签和分类的 sort_order 按原顺序改为间隔 1024 的稀疏排序号
+ */
+public class V5__respace_sort_orders extends BaseJavaMigration {
+
+    private static final int GAP = 1024;
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        respace(context.getConnection(), "bookmarks");
+        respace(context.getConnection(), "categories");
+    }
+
+    private void respace(Connection connection, String table) throws Exception {
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery(
+                     "SELECT id, user_id FROM " + table + " ORDER BY user_id, sort_order, id");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE " + table + " SET sort_order = ? WHERE id = ?")) {
+            long currentUser = -1;
+            int rank = 0;
+            int pending = 0;
+            while (rows.next()) {
+                long userId = rows.getLong("user_id");
+                if (userId != currentUser) {
+                    currentUser = userId;
+                    rank = 0;
+                }
+                update.setInt(1, ++rank * GAP);
+                update.setLong(2, rows.getLong("id"));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+}
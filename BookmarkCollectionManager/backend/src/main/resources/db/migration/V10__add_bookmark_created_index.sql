@@ -0,0 +1,2 @@
+-- 统计今日新增书签：按 (user_id, created_at) 范围计数，不扫描用户的全部书签
+CREATE INDEX idx_bookmarks_user_created ON bookmarks (user_id, created_at);
@@ -0,0 +1,18 @@
+-- 书签计数：分类的书签数存在 categories.bookmark_count，用户的书签总数和未分类数存在 user_bookmark_counts
+-- 所有书签写操作在同一事务中增减计数，定时任务按实际 COUNT 校正
+ALTER TABLE categories ADD COLUMN bookmark_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE categories c
+SET bookmark_count = (SELECT COUNT(*) FROM bookmarks b WHERE b.category_id = c.id);
+
+CREATE TABLE user_bookmark_counts (
+    user_id BIGINT NOT NULL,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    uncategorized_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO user_bookmark_counts (user_id, total_count, uncategorized_count)
+SELECT user_id, COUNT(*), SUM(CASE WHEN category_id IS NULL THEN 1 ELSE 0 END)
+FROM bookmarks
+GROUP BY user_id;
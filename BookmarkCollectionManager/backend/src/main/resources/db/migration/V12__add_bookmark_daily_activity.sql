@@ -0,0 +1,15 @@
+-- 书签活动日汇总：每个用户每天新增和删除的书签数，书签写操作在同一事务中增减，时间线接口只读汇总行
+CREATE TABLE bookmark_daily_activity (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    activity_date DATE NOT NULL,
+    added_count BIGINT NOT NULL DEFAULT 0,
+    deleted_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_bookmark_daily_activity_user_date (user_id, activity_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 已有用户的历史新增由启动后的回填任务按 created_at 补齐，回填完成后置为 TRUE；
+-- 之后新建的计数行从第一个书签起就有完整汇总，默认即为 TRUE
+ALTER TABLE user_bookmark_counts ADD COLUMN activity_backfilled BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE user_bookmark_counts ALTER COLUMN activity_backfilled SET DEFAULT TRUE;
@@ -0,0 +1,4 @@
+-- 书签 URL 的主机名，用于按站点统计（(user_id, host) 索引上分组计数）；存量数据由 V14 回填
+ALTER TABLE bookmarks ADD COLUMN host VARCHAR(255) DEFAULT NULL;
+
+CREATE INDEX idx_bookmarks_user_host ON bookmarks (user_id, host);
@@ -0,0 +1,45 @@
+-- 初始表结构（与 ddl-auto=update 生成的结构一致，已有数据库通过 baseline 跳过本脚本）
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    avatar VARCHAR(10) DEFAULT NULL,
+    created_at DATETIME(6) NOT NULL,
+    email VARCHAR(100) DEFAULT NULL,
+    password VARCHAR(100) NOT NULL,
+    username VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE user_settings (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    default_view VARCHAR(10) DEFAULT NULL,
+    theme VARCHAR(10) DEFAULT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_settings_user_id UNIQUE (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE categories (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6) NOT NULL,
+    icon VARCHAR(10) DEFAULT NULL,
+    name VARCHAR(50) NOT NULL,
+    sort_order INT DEFAULT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE bookmarks (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    category_id BIGINT DEFAULT NULL,
+    created_at DATETIME(6) NOT NULL,
+    description VARCHAR(500) DEFAULT NULL,
+    favicon VARCHAR(500) DEFAULT NULL,
+    sort_order INT DEFAULT NULL,
+    title VARCHAR(100) NOT NULL,
+    updated_at DATETIME(6) DEFAULT NULL,
+    url VARCHAR(500) NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
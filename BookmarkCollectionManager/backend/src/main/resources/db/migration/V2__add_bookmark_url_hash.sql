@@ -0,0 +1,2 @@
+-- URL 的 64 位哈希，用于 (user_id, url_hash) 索引查重；存量数据由 V3 回填
+ALTER TABLE bookmarks ADD COLUMN url_hash BIGINT DEFAULT NULL;
@@ -0,0 +1,18 @@
+-- 为仓库层的高频查询添加组合索引
+
+-- 书签列表、游标分页、最大排序号
+CREATE INDEX idx_bookmarks_user_sort ON bookmarks (user_id, sort_order, id);
+-- 按分类的书签列表
+CREATE INDEX idx_bookmarks_user_category_sort ON bookmarks (user_id, category_id, sort_order, id);
+-- URL 查重
+CREATE INDEX idx_bookmarks_user_url_hash ON bookmarks (user_id, url_hash);
+-- 分类书签数量、删除分类时清空分类
+CREATE INDEX idx_bookmarks_category ON bookmarks (category_id);
+
+-- 分类列表、最大排序号
+CREATE INDEX idx_categories_user_sort ON categories (user_id, sort_order);
+-- 同名分类检查
+CREATE INDEX idx_categories_user_name ON categories (user_id, name);
+
+-- 邮箱查重
+CREATE INDEX idx_users_email ON users (email);
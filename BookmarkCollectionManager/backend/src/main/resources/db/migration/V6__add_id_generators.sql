@@ -0,0 +1,10 @@
+-- 书签主键改为表生成器（pooled 优化器，每次取一段ID），使 Hibernate 可以批量插入
+-- 初始值跳过现有最大ID加一个分配段，保证与自增生成的旧ID不冲突
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(64) NOT NULL,
+    next_val BIGINT NOT NULL,
+    PRIMARY KEY (sequence_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'bookmarks', COALESCE(MAX(id), 0) + 101 FROM bookmarks;
@@ -0,0 +1,8 @@
+-- 书签访问统计：访问次数、最近访问时间和 frecency 得分
+-- frecency 以对数形式存储衰减后的访问得分，取值越大越靠前，未访问过的书签为 NULL
+ALTER TABLE bookmarks ADD COLUMN visit_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookmarks ADD COLUMN last_visited_at DATETIME(6) DEFAULT NULL;
+ALTER TABLE bookmarks ADD COLUMN frecency DOUBLE DEFAULT NULL;
+
+-- 按 frecency 排序的书签列表
+CREATE INDEX idx_bookmarks_user_frecency ON bookmarks (user_id, frecency);
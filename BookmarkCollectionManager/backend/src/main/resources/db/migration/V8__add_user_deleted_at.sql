@@ -0,0 +1,5 @@
+-- 账户注销标记：注销后立即写入，后台任务分批清理完数据后删除用户行
+-- 启动时按此列找出未清理完的账户继续清理
+ALTER TABLE users ADD COLUMN deleted_at DATETIME(6) DEFAULT NULL;
+
+CREATE INDEX idx_users_deleted_at ON users (deleted_at);
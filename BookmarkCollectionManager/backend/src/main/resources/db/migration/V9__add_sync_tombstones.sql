@@ -0,0 +1,23 @@
+-- 增量同步：按 updated_at 取变更，删除记录写入墓碑表
+
+-- 历史数据可能没有 updated_at，用创建时间补齐
+UPDATE bookmarks SET updated_at = created_at WHERE updated_at IS NULL;
+CREATE INDEX idx_bookmarks_user_updated ON bookmarks (user_id, updated_at);
+
+ALTER TABLE categories ADD COLUMN updated_at DATETIME(6) DEFAULT NULL;
+UPDATE categories SET updated_at = created_at;
+CREATE INDEX idx_categories_user_updated ON categories (user_id, updated_at);
+
+-- 删除墓碑：entity_type 为 BOOKMARK、CATEGORY，或 RESET（清空全部数据，客户端需全量刷新）
+-- 超过保留期的墓碑定期清理，更早的同步令牌要求全量刷新
+CREATE TABLE sync_tombstones (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE INDEX idx_sync_tombstones_user_deleted ON sync_tombstones (user_id, deleted_at);
+CREATE INDEX idx_sync_tombstones_deleted ON sync_tombstones (deleted_at);
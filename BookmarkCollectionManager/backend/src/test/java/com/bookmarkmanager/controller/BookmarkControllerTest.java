@@ -0,0 +1,61 @@
+package com.bookmarkmanager.controller;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.service.BookmarkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 书签列表的三种分页模式按请求参数互斥选择
+ */
+@AutoConfigureMockMvc
+class BookmarkControllerTest extends IntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser();
+        for (int i = 0; i < 3; i++) {
+            bookmarkService.createBookmark(userId, bookmarkRequest("b" + i, "https://example.com/" + i, null));
+        }
+    }
+
+    @Test
+    void pageModeReturnsTotal() throws Exception {
+        mockMvc.perform(get("/api/bookmarks").param("size", "2").header("Authorization", bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(3));
+    }
+
+    @Test
+    void sliceModeReturnsHasNext() throws Exception {
+        mockMvc.perform(get("/api/bookmarks").param("slice", "true").param("size", "2")
+                        .header("Authorization", bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.total").doesNotExist());
+    }
+
+    @Test
+    void cursorWinsOverSlice() throws Exception {
+        mockMvc.perform(get("/api/bookmarks").param("slice", "true").param("cursor", "").param("size", "2")
+                        .header("Authorization", bearer(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hasMore").value(true))
+                .andExpect(jsonPath("$.data.hasNext").doesNotExist());
+    }
+}
@@ -0,0 +1,122 @@
+package com.bookmarkmanager.controller;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.service.BookmarkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 流式导出：响应体在异步分派中写出，JWT 过滤器在分派时重新认证
+ */
+@AutoConfigureMockMvc
+class DataExportControllerTest extends IntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser();
+        bookmarkService.createBookmark(userId, bookmarkRequest("Example", "https://example.com/export", null));
+    }
+
+    @Test
+    void exportsJson() throws Exception {
+        MvcResult result = stream(get("/api/auth/export").header(HttpHeaders.AUTHORIZATION, bearer(userId)));
+
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).contains("https://example.com/export");
+    }
+
+    @Test
+    void exportsHtml() throws Exception {
+        MvcResult result = stream(get("/api/auth/export/html").header(HttpHeaders.AUTHORIZATION, bearer(userId)));
+
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_HTML_VALUE);
+        assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .contains("<!DOCTYPE NETSCAPE-Bookmark-file-1>")
+                .contains("https://example.com/export");
+    }
+
+    @Test
+    void exportsGzippedNdjson() throws Exception {
+        MvcResult result = stream(get("/api/auth/export")
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        byte[] body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            body = in.readAllBytes();
+        }
+        assertThat(new String(body, StandardCharsets.UTF_8)).contains("https://example.com/export");
+    }
+
+    @Test
+    void doesNotGzipWhenQualityIsZero() throws Exception {
+        MvcResult result = stream(get("/api/auth/export")
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"));
+
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).contains("https://example.com/export");
+    }
+
+    @Test
+    void parsesAcceptEncodingQualities() {
+        assertThat(DataController.acceptsGzip(null)).isFalse();
+        assertThat(DataController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(DataController.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(DataController.acceptsGzip("GZIP; q=0.5")).isTrue();
+        assertThat(DataController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(DataController.acceptsGzip("gzip;q=0.000, *")).isFalse();
+        assertThat(DataController.acceptsGzip("*")).isTrue();
+        assertThat(DataController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(DataController.acceptsGzip("gzipped")).isFalse();
+    }
+
+    @Test
+    void rejectsAnonymousExport() throws Exception {
+        mockMvc.perform(get("/api/auth/export"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * 发起请求并完成异步分派，返回分派后的结果
+     */
+    private MvcResult stream(RequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CONTENT_TYPE))
+                .andReturn();
+    }
+}
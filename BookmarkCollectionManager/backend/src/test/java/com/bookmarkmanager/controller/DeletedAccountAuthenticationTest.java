@@ -0,0 +1,59 @@
+package com.bookmarkmanager.controller;
+
+import com.bookmarkmanager.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 已注销或已删除的账户：未过期的 Token 不再认证，按数据库中的状态判断，不依赖本实例的注销任务记录
+ */
+@AutoConfigureMockMvc
+class DeletedAccountAuthenticationTest extends IntegrationTest {
+
+    private static final String BOOKMARK = "{\"title\":\"x\",\"url\":\"https://example.com/x\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void activeAccountAuthenticates() throws Exception {
+        Long userId = createUser();
+        mockMvc.perform(get("/api/bookmarks").header(HttpHeaders.AUTHORIZATION, bearer(userId)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void accountMarkedDeletedIsRejected() throws Exception {
+        Long userId = createUser();
+        jdbcTemplate.update("UPDATE users SET deleted_at = NOW() WHERE id = ?", userId);
+
+        mockMvc.perform(get("/api/bookmarks").header(HttpHeaders.AUTHORIZATION, bearer(userId)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void purgedAccountCannotWrite() throws Exception {
+        Long userId = createUser();
+        String token = bearer(userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+
+        mockMvc.perform(post("/api/bookmarks").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON).content(BOOKMARK))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/categories").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"c\"}"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,126 @@
+package com.bookmarkmanager.repository;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkRequest;
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.dto.category.CategoryRequest;
+import com.bookmarkmanager.service.BookmarkService;
+import com.bookmarkmanager.service.CategoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 高频查询的执行计划：每条语句都应走 V4/V7/V10 添加的组合索引，而不是全表扫描
+ * <p>
+ * 语句与仓库层查询的过滤和排序条件一致，在 H2（MySQL 兼容模式）上用 EXPLAIN 检查选中的索引。
+ */
+class QueryIndexUsageTest extends IntegrationTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    private Long userId;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser();
+        Long otherUserId = createUser();
+        CategoryRequest category = new CategoryRequest();
+        category.setName("work");
+        categoryId = categoryService.createCategory(userId, category).getId();
+
+        List<BookmarkRequest> mine = new ArrayList<>();
+        List<BookmarkRequest> others = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            mine.add(bookmarkRequest("b" + i, "https://example.com/" + i, i % 2 == 0 ? categoryId : null));
+            others.add(bookmarkRequest("o" + i, "https://example.org/" + i, null));
+        }
+        bookmarkService.createBookmarks(userId, mine);
+        bookmarkService.createBookmarks(otherUserId, others);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookmarkListUsesUserSortIndex() {
+        assertUsesIndex("SELECT id FROM bookmarks WHERE user_id = " + userId +
+                " ORDER BY sort_order, id LIMIT 20", "idx_bookmarks_user_sort");
+    }
+
+    @Test
+    void cursorPageUsesUserSortIndex() {
+        assertUsesIndex("SELECT id FROM bookmarks WHERE user_id = " + userId +
+                " AND sort_order >= 10240 AND (sort_order > 10240 OR id > 5) ORDER BY sort_order, id LIMIT 20",
+                "idx_bookmarks_user_sort");
+    }
+
+    @Test
+    void maxSortOrderUsesUserSortIndex() {
+        assertUsesIndex("SELECT MAX(sort_order) FROM bookmarks WHERE user_id = " + userId,
+                "idx_bookmarks_user_sort");
+    }
+
+    @Test
+    void categoryListUsesUserCategorySortIndex() {
+        assertUsesIndex("SELECT id FROM bookmarks WHERE user_id = " + userId + " AND category_id = " + categoryId +
+                " ORDER BY sort_order, id LIMIT 20", "idx_bookmarks_user_category_sort");
+    }
+
+    @Test
+    void urlDuplicateCheckUsesUrlHashIndex() {
+        assertUsesIndex("SELECT 1 FROM bookmarks WHERE user_id = " + userId +
+                " AND url_hash = 42 AND url = 'https://example.com/42' LIMIT 1", "idx_bookmarks_user_url_hash");
+    }
+
+    @Test
+    void todayCountUsesUserCreatedIndex() {
+        assertUsesIndex("SELECT COUNT(*) FROM bookmarks WHERE user_id = " + userId +
+                " AND created_at >= CURRENT_DATE", "idx_bookmarks_user_created");
+    }
+
+    @Test
+    void frecencyListUsesUserFrecencyIndex() {
+        jdbcTemplate.update("UPDATE bookmarks SET frecency = id WHERE user_id = ? AND MOD(id, 10) = 0", userId);
+        jdbcTemplate.execute("ANALYZE");
+
+        assertUsesIndex("SELECT id FROM bookmarks WHERE user_id = " + userId +
+                " ORDER BY frecency DESC LIMIT 20", "idx_bookmarks_user_frecency");
+
+        // 未访问过的书签（NULL）排在最后
+        List<BookmarkResponse> list = bookmarkRepository
+                .findSliceByUserIdOrderByFrecency(userId, PageRequest.of(0, 120)).getContent();
+        assertThat(list.subList(0, 100)).allMatch(bookmark -> bookmark.getId() % 10 == 0);
+        assertThat(list.subList(0, 100)).isSortedAccordingTo((a, b) -> Long.compare(b.getId(), a.getId()));
+        assertThat(list.subList(100, 120)).allMatch(bookmark -> bookmark.getId() % 10 != 0);
+    }
+
+    @Test
+    void categoryLookupsUseCategoryIndexes() {
+        assertUsesIndex("SELECT id FROM categories WHERE user_id = " + userId + " ORDER BY sort_order",
+                "idx_categories_user_sort");
+        assertUsesIndex("SELECT 1 FROM categories WHERE user_id = " + userId + " AND name = 'work' LIMIT 1",
+                "idx_categories_user_name");
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        assertThat(plan.toLowerCase()).as(plan).contains(index);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookmarkmanager.search;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.service.BookmarkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 倒排索引搜索：词项前缀匹配，词项无结果时退回子串匹配
+ */
+class InvertedIndexSearchBackendTest extends IntegrationTest {
+
+    @Autowired
+    private SearchBackend searchBackend;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser();
+        bookmarkService.createBookmark(userId, bookmarkRequest("mygithubrepo", "https://example.com/a", null));
+        bookmarkService.createBookmark(userId, bookmarkRequest("GitHub Docs", "https://docs.example.com/b", null));
+        bookmarkService.createBookmark(userId, bookmarkRequest("前端工程化实践", "https://example.com/c", null));
+    }
+
+    @Test
+    void prefixMatchUsesTokens() {
+        assertThat(titles("git")).containsExactly("GitHub Docs");
+    }
+
+    @Test
+    void fallsBackToSubstringInsideWords() {
+        assertThat(titles("githubrepo")).containsExactly("mygithubrepo");
+        assertThat(titles("hubre")).containsExactly("mygithubrepo");
+        assertThat(searchBackend.count(userId, null, "hubre")).isEqualTo(1);
+    }
+
+    @Test
+    void substringFallbackHonoursCategoryAndMisses() {
+        assertThat(titles("nothing-like-this")).isEmpty();
+        assertThat(searchBackend.search(userId, -1L, "hubre", PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    @Test
+    void cjkBigramsStillMatch() {
+        assertThat(titles("工程")).containsExactly("前端工程化实践");
+    }
+
+    private List<String> titles(String keyword) {
+        return searchBackend.search(userId, null, keyword, PageRequest.of(0, 10)).getContent().stream()
+                .map(BookmarkResponse::getTitle)
+                .toList();
+    }
+}
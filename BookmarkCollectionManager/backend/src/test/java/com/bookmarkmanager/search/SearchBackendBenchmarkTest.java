@@ -0,0 +1,103 @@
+package com.bookmarkmanager.search;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.service.SortKeyService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 10 万条书签的用户：倒排索引与 LIKE 后端的搜索耗时对比
+ * <p>
+ * 关键词都是完整词项，两个后端的结果应完全一致；耗时取多次搜索（首页 + 总数）的中位数写入日志。
+ */
+@Slf4j
+class SearchBackendBenchmarkTest extends IntegrationTest {
+
+    private static final int BOOKMARKS = 100_000;
+    private static final int TOPICS = 500;
+    private static final int ROUNDS = 20;
+    private static final String[] KEYWORDS = {"topic7", "topic123", "notes"};
+
+    @Autowired
+    private SearchBackend searchBackend;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void indexMatchesLikeAndIsFaster() {
+        Long userId = createUser();
+        insertBookmarks(userId);
+        SearchBackend like = new LikeSearchBackend(bookmarkRepository);
+
+        long loadStart = System.nanoTime();
+        searchBackend.count(userId, null, KEYWORDS[0]);
+        log.info("倒排索引加载 {} 条书签耗时 {} ms", BOOKMARKS, (System.nanoTime() - loadStart) / 1_000_000);
+
+        for (String keyword : KEYWORDS) {
+            assertThat(searchBackend.count(userId, null, keyword)).isEqualTo(like.count(userId, null, keyword));
+            assertThat(ids(searchBackend, userId, keyword)).isEqualTo(ids(like, userId, keyword));
+
+            long indexMicros = medianMicros(searchBackend, userId, keyword);
+            long likeMicros = medianMicros(like, userId, keyword);
+            log.info("关键词 {}：命中 {} 条，倒排索引 {} µs，LIKE {} µs", keyword,
+                    like.count(userId, null, keyword), indexMicros, likeMicros);
+            assertThat(indexMicros).isLessThan(likeMicros);
+        }
+    }
+
+    private List<Long> ids(SearchBackend backend, Long userId, String keyword) {
+        return backend.search(userId, null, keyword, PageRequest.of(0, 20)).getContent().stream()
+                .map(BookmarkResponse::getId)
+                .toList();
+    }
+
+    private long medianMicros(SearchBackend backend, Long userId, String keyword) {
+        long[] micros = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            backend.search(userId, null, keyword, PageRequest.of(0, 20));
+            backend.count(userId, null, keyword);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        return micros[ROUNDS / 2];
+    }
+
+    /**
+     * 直接批量插入，ID 取在生成器用不到的区间，不与其他测试通过 Hibernate 写入的书签冲突
+     */
+    private void insertBookmarks(Long userId) {
+        long baseId = 10_000_000_000L + userId * 1_000_000L;
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < BOOKMARKS; i++) {
+            String description = i % 10 == 0 ? "reading notes" : "";
+            rows.add(new Object[]{baseId + i, userId, "Article " + i + " topic" + (i % TOPICS), description,
+                    "https://example.com/" + i, (i + 1) * SortKeyService.GAP});
+            if (rows.size() == 10_000) {
+                flush(rows);
+            }
+        }
+        flush(rows);
+    }
+
+    private void flush(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO bookmarks (id, user_id, title, description, url, sort_order, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, NOW())", rows);
+        rows.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.data.DataClearJobResponse;
+import com.bookmarkmanager.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 注销大账户：10 万条书签由后台任务分批删除，最后删除用户行，其他用户的数据不受影响
+ */
+class AccountPurgeTest extends IntegrationTest {
+
+    private static final int BOOKMARKS = 100_000;
+    private static final int CATEGORIES = 50;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private AccountDeletionJobs accountDeletionJobs;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void purgesLargeAccountInChunks() throws Exception {
+        Long userId = userRepository.save(User.builder()
+                .username("purge" + System.nanoTime() % 1_000_000_000L)
+                .password(passwordEncoder.encode("secret"))
+                .build()).getId();
+        Long bystanderId = createUser();
+        bookmarkService.createBookmark(bystanderId, bookmarkRequest("keep", "https://example.com/keep", null));
+        insertBookmarks(userId);
+
+        authService.deleteAccount(userId, "secret");
+
+        DataClearJobResponse job = awaitFinished(userId);
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getTotalBookmarks()).isEqualTo(BOOKMARKS);
+        assertThat(job.getDeletedBookmarks()).isEqualTo(BOOKMARKS);
+        assertThat(job.getDeletedCategories()).isEqualTo(CATEGORIES);
+        assertThat(count("SELECT COUNT(*) FROM bookmarks WHERE user_id = ?", userId)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM categories WHERE user_id = ?", userId)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM users WHERE id = ?", userId)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM bookmarks WHERE user_id = ?", bystanderId)).isEqualTo(1);
+    }
+
+    /**
+     * 直接批量插入，ID 取在生成器用不到的区间，不与其他测试通过 Hibernate 写入的书签冲突
+     */
+    private void insertBookmarks(Long userId) {
+        for (int i = 0; i < CATEGORIES; i++) {
+            jdbcTemplate.update("INSERT INTO categories (user_id, name, sort_order, created_at) VALUES (?, ?, ?, NOW())",
+                    userId, "c" + i, (i + 1) * SortKeyService.GAP);
+        }
+        long baseId = 10_000_000_000L + userId * 1_000_000L;
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < BOOKMARKS; i++) {
+            rows.add(new Object[]{baseId + i, userId, "b" + i, "https://example.com/" + i, (i + 1) * SortKeyService.GAP});
+            if (rows.size() == 10_000) {
+                flush(rows);
+            }
+        }
+        flush(rows);
+    }
+
+    private void flush(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO bookmarks (id, user_id, title, url, sort_order, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, NOW())", rows);
+        rows.clear();
+    }
+
+    private DataClearJobResponse awaitFinished(Long userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 120_000;
+        DataClearJobResponse job = accountDeletionJobs.get(userId);
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            job = accountDeletionJobs.get(userId);
+        }
+        return job;
+    }
+
+    private long count(String sql, Long userId) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, userId);
+        return count != null ? count : 0;
+    }
+}
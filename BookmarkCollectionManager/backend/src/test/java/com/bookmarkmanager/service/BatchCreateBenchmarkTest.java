@@ -0,0 +1,76 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkRequest;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量创建书签的插入速率：每批 1 万条，主键由表生成器预分配，插入按 hibernate.jdbc.batch_size 分批执行
+ * <p>
+ * 每批的插入速率写入日志；预编译语句数说明插入没有退化为逐条执行。
+ */
+@Slf4j
+class BatchCreateBenchmarkTest extends IntegrationTest {
+
+    private static final int BATCH = 10_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertsTenThousandBookmarksPerBatch() {
+        Long userId = createUser();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            List<BookmarkRequest> requests = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                requests.add(bookmarkRequest("b" + round + "-" + i, "https://example.com/" + round + "/" + i, null));
+            }
+
+            statistics.clear();
+            long start = System.nanoTime();
+            int created = bookmarkService.createBookmarks(userId, requests);
+            long nanos = System.nanoTime() - start;
+
+            assertThat(created).isEqualTo(BATCH);
+            log.info("第 {} 批：{} 条，{} ms，{} 条/秒，预编译 {} 条语句", round + 1, BATCH, nanos / 1_000_000,
+                    BATCH * 1_000_000_000L / nanos, statistics.getPrepareStatementCount());
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(BATCH);
+            // 批量插入复用同一条预编译语句；逐条插入时每条书签都要预编译一次
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(BATCH / 50);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookmarks WHERE user_id = ?", Long.class, userId))
+                .isEqualTo((long) BATCH * ROUNDS);
+    }
+
+    @Test
+    void singleCreatesForComparison() {
+        Long userId = createUser();
+        int count = BATCH / 10;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            bookmarkService.createBookmark(userId, bookmarkRequest("s" + i, "https://example.com/single/" + i, null));
+        }
+        long nanos = System.nanoTime() - start;
+        log.info("逐条创建：{} 条，{} ms，{} 条/秒", count, nanos / 1_000_000, count * 1_000_000_000L / nanos);
+    }
+}
@@ -0,0 +1,64 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.category.CategoryRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量删除：计数、同步墓碑和搜索索引只处理实际删除的书签
+ */
+class BatchDeleteBookmarksTest extends IntegrationTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BookmarkCounters bookmarkCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void onlyDeletedIdsGetTombstones() {
+        Long userId = createUser();
+        Long otherUserId = createUser();
+        CategoryRequest category = new CategoryRequest();
+        category.setName("work");
+        Long categoryId = categoryService.createCategory(userId, category).getId();
+        Long first = bookmarkService.createBookmark(userId, bookmarkRequest("alpha one", "https://example.com/1", categoryId)).getId();
+        Long second = bookmarkService.createBookmark(userId, bookmarkRequest("alpha two", "https://example.com/2", null)).getId();
+        Long kept = bookmarkService.createBookmark(userId, bookmarkRequest("alpha kept", "https://example.com/3", null)).getId();
+        Long foreign = bookmarkService.createBookmark(otherUserId, bookmarkRequest("alpha foreign", "https://example.org/1", null)).getId();
+
+        int deleted = bookmarkService.batchDeleteBookmarks(userId, List.of(first, second, foreign, 999_999_999L));
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT entity_id FROM sync_tombstones WHERE user_id = ? AND entity_type = 'BOOKMARK'",
+                Long.class, userId)).containsExactlyInAnyOrder(first, second);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookmarks WHERE id = ?", Long.class, foreign)).isEqualTo(1);
+        assertThat(bookmarkCounters.total(userId)).isEqualTo(1);
+        assertThat(bookmarkCounters.total(otherUserId)).isEqualTo(1);
+        assertThat(bookmarkService.getBookmarks(userId, 1, 10, null, "alpha", null).getList())
+                .extracting("id").containsExactly(kept);
+    }
+
+    @Test
+    void nothingOwnedMeansNoWrites() {
+        Long userId = createUser();
+        Long otherUserId = createUser();
+        Long foreign = bookmarkService.createBookmark(otherUserId, bookmarkRequest("x", "https://example.org/x", null)).getId();
+
+        assertThat(bookmarkService.batchDeleteBookmarks(userId, List.of(foreign))).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sync_tombstones WHERE user_id = ?", Long.class, userId))
+                .isZero();
+    }
+}
@@ -0,0 +1,142 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkRequest;
+import com.bookmarkmanager.dto.category.CategoryRequest;
+import com.bookmarkmanager.entity.UserBookmarkCount;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 书签计数器性质测试：随机的新增、移动、删除序列之后，计数与 COUNT(*) 一致
+ * <p>
+ * 每个种子生成一条固定的操作序列，失败时按种子和操作日志复现。
+ */
+class BookmarkCountersPropertyTest extends IntegrationTest {
+
+    private static final int OPERATIONS = 150;
+    private static final int CHECK_EVERY = 25;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BookmarkCounters bookmarkCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 7L, 42L, 2024L, 31337L})
+    void countersMatchCountAfterRandomOperations(long seed) {
+        Random random = new Random(seed);
+        Long userId = createUser();
+        List<Long> categories = new ArrayList<>();
+        List<Long> bookmarks = new ArrayList<>();
+        List<String> log = new ArrayList<>();
+        int urlSeq = 0;
+
+        for (int step = 1; step <= OPERATIONS; step++) {
+            int op = random.nextInt(100);
+            if (op < 8 || categories.isEmpty()) {
+                CategoryRequest request = new CategoryRequest();
+                request.setName("c" + step);
+                categories.add(categoryService.createCategory(userId, request).getId());
+                log.add("createCategory");
+            } else if (op < 35) {
+                Long categoryId = pickCategory(random, categories);
+                bookmarks.add(bookmarkService.createBookmark(userId,
+                        bookmarkRequest("b" + urlSeq, "https://example.com/" + urlSeq++, categoryId)).getId());
+                log.add("create -> " + categoryId);
+            } else if (op < 45) {
+                List<BookmarkRequest> requests = new ArrayList<>();
+                int size = 1 + random.nextInt(5);
+                for (int i = 0; i < size; i++) {
+                    requests.add(bookmarkRequest("b" + urlSeq, "https://example.com/" + urlSeq++, pickCategory(random, categories)));
+                }
+                bookmarkService.createBookmarks(userId, requests);
+                bookmarks.clear();
+                bookmarks.addAll(jdbcTemplate.queryForList("SELECT id FROM bookmarks WHERE user_id = ?", Long.class, userId));
+                log.add("createBatch " + size);
+            } else if (op < 60 && !bookmarks.isEmpty()) {
+                Long bookmarkId = bookmarks.get(random.nextInt(bookmarks.size()));
+                Long target = pickCategory(random, categories);
+                bookmarkService.moveBookmark(userId, bookmarkId, target);
+                log.add("move " + bookmarkId + " -> " + target);
+            } else if (op < 68 && !bookmarks.isEmpty()) {
+                Long bookmarkId = bookmarks.get(random.nextInt(bookmarks.size()));
+                Long target = pickCategory(random, categories);
+                bookmarkService.updateBookmark(userId, bookmarkId,
+                        bookmarkRequest("u" + step, "https://example.com/u" + step, target));
+                log.add("update " + bookmarkId + " -> " + target);
+            } else if (op < 80 && !bookmarks.isEmpty()) {
+                Long bookmarkId = bookmarks.remove(random.nextInt(bookmarks.size()));
+                bookmarkService.deleteBookmark(userId, bookmarkId);
+                log.add("delete " + bookmarkId);
+            } else if (op < 92 && !bookmarks.isEmpty()) {
+                List<Long> ids = new ArrayList<>();
+                int size = 1 + random.nextInt(4);
+                for (int i = 0; i < size && !bookmarks.isEmpty(); i++) {
+                    ids.add(bookmarks.remove(random.nextInt(bookmarks.size())));
+                }
+                // 混入不存在和重复的ID
+                ids.add(999_999_999L);
+                if (random.nextBoolean()) {
+                    ids.add(ids.get(0));
+                }
+                bookmarkService.batchDeleteBookmarks(userId, ids);
+                log.add("batchDelete " + ids);
+            } else if (categories.size() > 1) {
+                Long categoryId = categories.remove(random.nextInt(categories.size()));
+                Long moveTo = random.nextBoolean() ? categories.get(random.nextInt(categories.size())) : null;
+                categoryService.deleteCategory(userId, categoryId, moveTo);
+                log.add("deleteCategory " + categoryId + " -> " + moveTo);
+            }
+
+            if (step % CHECK_EVERY == 0) {
+                assertCountersMatch(userId, seed, log);
+            }
+        }
+        assertCountersMatch(userId, seed, log);
+    }
+
+    private static Long pickCategory(Random random, List<Long> categories) {
+        int index = random.nextInt(categories.size() + 1);
+        return index == categories.size() ? null : categories.get(index);
+    }
+
+    private void assertCountersMatch(Long userId, long seed, List<String> log) {
+        String description = "seed " + seed + ", operations " + log;
+        UserBookmarkCount counts = bookmarkCounters.find(userId);
+        assertThat(counts.getTotalCount()).as(description)
+                .isEqualTo(count("SELECT COUNT(*) FROM bookmarks WHERE user_id = ?", userId));
+        assertThat(counts.getUncategorizedCount()).as(description)
+                .isEqualTo(count("SELECT COUNT(*) FROM bookmarks WHERE user_id = ? AND category_id IS NULL", userId));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT c.id, c.bookmark_count, (SELECT COUNT(*) FROM bookmarks b WHERE b.category_id = c.id) AS actual " +
+                "FROM categories c WHERE c.user_id = ?", userId);
+        for (Map<String, Object> row : rows) {
+            assertThat(((Number) row.get("bookmark_count")).longValue())
+                    .as("category " + row.get("id") + ", " + description)
+                    .isEqualTo(((Number) row.get("actual")).longValue());
+        }
+    }
+
+    private long count(String sql, Long userId) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, userId);
+        return count != null ? count : 0;
+    }
+}
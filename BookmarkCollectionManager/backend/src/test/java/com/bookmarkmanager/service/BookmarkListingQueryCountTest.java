@@ -0,0 +1,98 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkRequest;
+import com.bookmarkmanager.dto.bookmark.BookmarkResponse;
+import com.bookmarkmanager.dto.bookmark.PageResponse;
+import com.bookmarkmanager.dto.category.CategoryRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 书签列表的语句数：一页一条列表查询加至多一条总数查询，与每页条数无关
+ * <p>
+ * 每页条数都小于结果数，总数走缓存未命中的统计路径。
+ */
+class BookmarkListingQueryCountTest extends IntegrationTest {
+
+    private static final int BOOKMARKS = 150;
+    private static final int[] PAGE_SIZES = {5, 20, 50};
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BookmarkTotalCache bookmarkTotalCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser();
+        CategoryRequest category = new CategoryRequest();
+        category.setName("work");
+        categoryId = categoryService.createCategory(userId, category).getId();
+
+        List<BookmarkRequest> requests = new ArrayList<>();
+        for (int i = 0; i < BOOKMARKS; i++) {
+            requests.add(bookmarkRequest("docs " + i, "https://example.com/docs/" + i, i % 2 == 0 ? categoryId : null));
+        }
+        bookmarkService.createBookmarks(userId, requests);
+    }
+
+    @Test
+    void allBookmarks() {
+        assertFixedStatementCount(null, null, null, BOOKMARKS);
+    }
+
+    @Test
+    void byCategory() {
+        assertFixedStatementCount(categoryId, null, null, BOOKMARKS / 2);
+    }
+
+    @Test
+    void byFrecency() {
+        assertFixedStatementCount(null, null, "frecency", BOOKMARKS);
+    }
+
+    @Test
+    void byKeyword() {
+        // 首次搜索加载用户的索引，之后不再计入
+        bookmarkService.getBookmarks(userId, 1, 1, null, "docs", null);
+        assertFixedStatementCount(null, "docs", null, BOOKMARKS);
+        assertFixedStatementCount(categoryId, "docs", null, BOOKMARKS / 2);
+    }
+
+    private void assertFixedStatementCount(Long categoryId, String keyword, String sort, long expectedTotal) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> counts = new ArrayList<>();
+        for (int size : PAGE_SIZES) {
+            bookmarkTotalCache.evict(userId);
+            statistics.clear();
+
+            PageResponse<BookmarkResponse> page = bookmarkService.getBookmarks(userId, 1, size, categoryId, keyword, sort);
+
+            assertThat(page.getList()).hasSize(size);
+            assertThat(page.getTotal()).isEqualTo(expectedTotal);
+            counts.add(statistics.getPrepareStatementCount());
+        }
+        assertThat(counts).containsOnly(counts.get(0));
+        assertThat(counts.get(0)).isLessThanOrEqualTo(2);
+    }
+}
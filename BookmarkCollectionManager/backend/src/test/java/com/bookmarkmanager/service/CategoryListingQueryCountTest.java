@@ -0,0 +1,70 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkRequest;
+import com.bookmarkmanager.dto.category.CategoryRequest;
+import com.bookmarkmanager.dto.category.CategoryResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 分类列表：分类和书签数一条语句查出，语句数与分类数无关
+ */
+class CategoryListingQueryCountTest extends IntegrationTest {
+
+    private static final int CATEGORIES = 20;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void listsCategoriesWithCountsInOneStatement() {
+        Long userId = createUser();
+        List<Long> categoryIds = new ArrayList<>();
+        List<BookmarkRequest> requests = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            CategoryRequest category = new CategoryRequest();
+            category.setName("c" + i);
+            Long categoryId = categoryService.createCategory(userId, category).getId();
+            categoryIds.add(categoryId);
+            // 第 i 个分类放 i 个书签，第一个分类为空
+            for (int j = 0; j < i; j++) {
+                requests.add(bookmarkRequest("b" + i + "-" + j, "https://example.com/" + i + "/" + j, categoryId));
+            }
+        }
+        requests.add(bookmarkRequest("loose", "https://example.com/loose", null));
+        bookmarkService.createBookmarks(userId, requests);
+        // 计数列被改乱时列表仍按实际书签数返回
+        jdbcTemplate.update("UPDATE categories SET bookmark_count = 999 WHERE user_id = ?", userId);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<CategoryResponse> categories = categoryService.getCategories(userId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(categories).extracting(CategoryResponse::getId).containsExactlyElementsOf(categoryIds);
+        for (int i = 0; i < CATEGORIES; i++) {
+            assertThat(categories.get(i).getBookmarkCount()).isEqualTo(i);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookmarks WHERE category_id = ?",
+                    Long.class, categoryIds.get(i))).isEqualTo(i);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.entity.Bookmark;
+import com.bookmarkmanager.repository.BookmarkRepository;
+import com.bookmarkmanager.util.SpaceSaving;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 全站站点草图：首次查询才建立；重建期间新增的书签按高水位只计一次
+ */
+class DomainStatisticsTest {
+
+    private BookmarkRepository bookmarkRepository;
+    private DomainStatistics domainStatistics;
+
+    @BeforeEach
+    void setUp() {
+        bookmarkRepository = mock(BookmarkRepository.class);
+        domainStatistics = new DomainStatistics(bookmarkRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 100);
+    }
+
+    @Test
+    void buildsLazilyOnFirstQuery() {
+        when(bookmarkRepository.findMaxId()).thenReturn(2L);
+        when(bookmarkRepository.streamHostsUpTo(2L)).thenAnswer(invocation -> Stream.of("a.com", "b.com"));
+
+        domainStatistics.scheduledRebuild();
+        verify(bookmarkRepository, never()).streamHostsUpTo(anyLong());
+
+        assertThat(domainStatistics.sketch().total()).isEqualTo(2);
+        assertThat(domainStatistics.sketch().total()).isEqualTo(2);
+        verify(bookmarkRepository, times(1)).streamHostsUpTo(2L);
+
+        domainStatistics.scheduledRebuild();
+        verify(bookmarkRepository, times(2)).streamHostsUpTo(2L);
+    }
+
+    @Test
+    void bookmarksAddedDuringRebuildAreCountedOnce() {
+        when(bookmarkRepository.findMaxId()).thenReturn(100L);
+        when(bookmarkRepository.streamHostsUpTo(100L)).thenAnswer(invocation -> {
+            // 扫描开始后提交了两个书签：ID 50 已在扫描结果中，ID 150 在高水位之后
+            domainStatistics.added(List.of(bookmark(50L, "a.com"), bookmark(150L, "b.com")));
+            return Stream.of("a.com");
+        });
+
+        SpaceSaving sketch = domainStatistics.sketch();
+
+        assertThat(sketch.total()).isEqualTo(2);
+        assertThat(sketch.top(2)).extracting(SpaceSaving.Entry::item, SpaceSaving.Entry::count)
+                .containsExactlyInAnyOrder(tuple("a.com", 1L), tuple("b.com", 1L));
+    }
+
+    private static Bookmark bookmark(Long id, String host) {
+        Bookmark bookmark = new Bookmark();
+        bookmark.setId(id);
+        bookmark.setHost(host);
+        return bookmark;
+    }
+}
@@ -0,0 +1,149 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 10 万条书签的导出：JSON、NDJSON、NDJSON + gzip 的传输字节数和服务端 CPU 时间
+ * <p>
+ * gzip 与控制器一样包在响应流外层；CPU 时间取导出线程的中位数，测试用的 H2 内存库查询也算在内。
+ */
+@Slf4j
+class ExportFormatBenchmarkTest extends IntegrationTest {
+
+    private static final int BOOKMARKS = 100_000;
+    private static final int CATEGORIES = 50;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private DataService dataService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private interface Export {
+        void write(OutputStream out) throws IOException;
+    }
+
+    @Test
+    void ndjsonWithGzipIsSmallest() throws IOException {
+        Long userId = createUser();
+        insertBookmarks(userId);
+
+        long json = measure("JSON", out -> dataService.exportData(userId, out));
+        long ndjson = measure("NDJSON", out -> dataService.exportNdjson(userId, out));
+        long gzip = measure("NDJSON + gzip", out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+            dataService.exportNdjson(userId, compressed);
+            compressed.finish();
+        });
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        dataService.exportNdjson(userId, plain);
+        String lines = plain.toString(StandardCharsets.UTF_8);
+        assertThat(lines.lines().count()).isEqualTo(1 + CATEGORIES + BOOKMARKS);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed, 8192)) {
+            dataService.exportNdjson(userId, out);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().count())
+                    .isEqualTo(1 + CATEGORIES + BOOKMARKS);
+        }
+
+        assertThat(ndjson).isLessThan(json);
+        assertThat(gzip).isLessThan(ndjson / 4);
+    }
+
+    /**
+     * 导出 ROUNDS 次，日志记录字节数、耗时和 CPU 时间中位数，返回字节数
+     */
+    private long measure(String format, Export export) throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long[] cpuNanos = new long[ROUNDS];
+        long[] wallNanos = new long[ROUNDS];
+        long bytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            CountingOutputStream out = new CountingOutputStream();
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            long start = System.nanoTime();
+            export.write(out);
+            wallNanos[i] = System.nanoTime() - start;
+            cpuNanos[i] = threads.getCurrentThreadCpuTime() - cpuStart;
+            bytes = out.bytes;
+        }
+        Arrays.sort(cpuNanos);
+        Arrays.sort(wallNanos);
+        log.info("{}：{} KB，耗时 {} ms，CPU {} ms（{} 条书签）", format, bytes >> 10, wallNanos[ROUNDS / 2] / 1_000_000,
+                cpuNanos[ROUNDS / 2] / 1_000_000, BOOKMARKS);
+        return bytes;
+    }
+
+    /**
+     * 直接批量插入，ID 取在生成器用不到的区间，不与其他测试通过 Hibernate 写入的书签冲突
+     */
+    private void insertBookmarks(Long userId) {
+        for (int i = 0; i < CATEGORIES; i++) {
+            jdbcTemplate.update("INSERT INTO categories (user_id, name, sort_order, created_at) VALUES (?, ?, ?, NOW())",
+                    userId, "分类 " + i, (i + 1) * SortKeyService.GAP);
+        }
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories WHERE user_id = ?", Long.class, userId);
+
+        long baseId = 10_000_000_000L + userId * 1_000_000L;
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < BOOKMARKS; i++) {
+            Long categoryId = i % 11 == 0 ? null : categoryIds.get(i % CATEGORIES);
+            String description = i % 5 == 0 ? "书签 " + i + " 的描述" : "";
+            rows.add(new Object[]{baseId + i, userId, categoryId, "文章标题 " + i, description,
+                    "https://example.com/articles/" + i + "?utm_source=export",
+                    "https://www.google.com/s2/favicons?domain=example.com&sz=64", (i + 1) * SortKeyService.GAP});
+            if (rows.size() == 10_000) {
+                flush(rows);
+            }
+        }
+        flush(rows);
+    }
+
+    private void flush(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO bookmarks (id, user_id, category_id, title, description, url, favicon, " +
+                "sort_order, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, NOW())", rows);
+        rows.clear();
+    }
+
+    /**
+     * 只统计字节数的输出，相当于写到网络上的字节
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+        }
+    }
+}
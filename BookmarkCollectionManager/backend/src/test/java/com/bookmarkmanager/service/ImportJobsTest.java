@@ -0,0 +1,89 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 直接上传导入：排队数超限时不读请求体，超过大小上限时中止并删除临时文件
+ */
+class ImportJobsTest {
+
+    private static final long MAX_BODY_SIZE = 1024;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ImportJobs importJobs;
+
+    @BeforeEach
+    void setUp() {
+        BookmarkImporter importer = mock(BookmarkImporter.class);
+        // 导入一直阻塞，让第一个任务保持执行中
+        when(importer.open(any())).thenAnswer(invocation -> {
+            release.await(30, TimeUnit.SECONDS);
+            throw new IllegalStateException("released");
+        });
+        importJobs = new ImportJobs(importer, mock(DataService.class), 1, 1, MAX_BODY_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        importJobs.shutdown();
+    }
+
+    @Test
+    void rejectsBeforeReadingWhenQueueIsFull() throws IOException {
+        importJobs.submit(1L, "json", body(10));
+        List<Path> before = tempUploads();
+
+        InputStream untouched = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("请求体不应被读取");
+            }
+        };
+        BusinessException error = catchThrowableOfType(() -> importJobs.submit(1L, "json", untouched), BusinessException.class);
+
+        assertThat(error.getCode()).isEqualTo(429);
+        assertThat(tempUploads()).isEqualTo(before);
+    }
+
+    @Test
+    void rejectsOversizedBodyAndDeletesTempFile() throws IOException {
+        List<Path> before = tempUploads();
+
+        BusinessException error = catchThrowableOfType(
+                () -> importJobs.submit(2L, "json", body(MAX_BODY_SIZE + 1)), BusinessException.class);
+
+        assertThat(error.getCode()).isEqualTo(413);
+        assertThat(tempUploads()).isEqualTo(before);
+    }
+
+    private static InputStream body(long size) {
+        return new ByteArrayInputStream("x".repeat((int) size).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Path> tempUploads() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("bookmark-upload-")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 导入的语句数：查重在内存中完成，语句数只随批次数增长，不随书签数逐条增长
+ * <p>
+ * 文件中有已存在的书签，也有文件内部的重复；语句数和导入速率写入日志。
+ */
+@Slf4j
+class ImportQueryCountTest extends IntegrationTest {
+
+    private static final int EXISTING = 1_000;
+    private static final int CATEGORIES = 20;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private BookmarkImporter bookmarkImporter;
+
+    @Autowired
+    private DataService dataService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementsDoNotGrowPerBookmark() throws IOException {
+        long small = importAndCount(2_000);
+        long large = importAndCount(10_000);
+
+        // 书签数增加到 5 倍，语句数只多出新增批次的插入
+        assertThat(large).isLessThan(10_000 / 20);
+        assertThat(large).isLessThan(small * 5);
+    }
+
+    /**
+     * 导入 rows 行（前 EXISTING 行与已有书签重复，最后一成重复文件内的前面几行），返回语句数
+     */
+    private long importAndCount(int rows) throws IOException {
+        Long userId = createUser();
+        List<BookmarkRequest> existing = new ArrayList<>();
+        for (int i = 0; i < EXISTING; i++) {
+            existing.add(bookmarkRequest("e" + i, url(i), null));
+        }
+        bookmarkService.createBookmarks(userId, existing);
+        byte[] file = export(rows);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        Map<String, Integer> result = dataService.importData(bookmarkImporter.open(userId), new ByteArrayInputStream(file));
+        long nanos = System.nanoTime() - start;
+        long statements = statistics.getPrepareStatementCount();
+
+        int inFileDuplicates = rows / 10;
+        assertThat(result.get("duplicateBookmarks")).isEqualTo(EXISTING + inFileDuplicates);
+        assertThat(result.get("importedBookmarks")).isEqualTo(rows - EXISTING - inFileDuplicates);
+        assertThat(result.get("importedCategories")).isEqualTo(CATEGORIES);
+        log.info("导入 {} 行（重复 {}）：{} 条语句，{} ms，{} 行/秒", rows, EXISTING + inFileDuplicates, statements,
+                nanos / 1_000_000, rows * 1_000_000_000L / nanos);
+        return statements;
+    }
+
+    private byte[] export(int rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("categories");
+            for (int i = 1; i <= CATEGORIES; i++) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", i);
+                generator.writeStringField("name", "c" + i);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("bookmarks");
+            int unique = rows - rows / 10;
+            for (int i = 0; i < rows; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("title", "b" + i);
+                generator.writeStringField("url", url(i < unique ? i : i - unique + EXISTING));
+                generator.writeNumberField("categoryId", i % CATEGORIES + 1);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static String url(int i) {
+        return "https://example.com/import/" + i;
+    }
+}
@@ -0,0 +1,44 @@
+package com.bookmarkmanager.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 启动清理：上传目录可能是共用目录，只删除上次运行留下的上传目录和其中的分片
+ */
+class ImportUploadsTest {
+
+    @TempDir
+    Path baseDir;
+
+    @Test
+    void startupCleanupKeepsForeignEntries() throws IOException {
+        Path foreignFile = Files.writeString(baseDir.resolve("notes.txt"), "keep");
+        Path foreignDir = Files.createDirectory(baseDir.resolve("backups"));
+        Files.writeString(foreignDir.resolve("part-1"), "keep");
+
+        Path leftover = Files.createDirectory(baseDir.resolve(UUID.randomUUID().toString()));
+        Files.writeString(leftover.resolve("part-1"), "chunk");
+        Files.writeString(leftover.resolve("receiving-123.tmp"), "half");
+
+        Path shared = Files.createDirectory(baseDir.resolve(UUID.randomUUID().toString()));
+        Files.writeString(shared.resolve("part-2"), "chunk");
+        Path sharedForeign = Files.writeString(shared.resolve("readme.md"), "keep");
+
+        new ImportUploads(mock(ImportJobs.class), baseDir.toString(), 1024, 10, 3, 24);
+
+        assertThat(leftover).doesNotExist();
+        assertThat(foreignFile).exists();
+        assertThat(foreignDir.resolve("part-1")).exists();
+        assertThat(shared.resolve("part-2")).doesNotExist();
+        assertThat(sharedForeign).exists();
+    }
+}
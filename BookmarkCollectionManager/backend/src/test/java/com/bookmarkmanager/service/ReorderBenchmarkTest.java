@@ -0,0 +1,115 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.bookmark.BookmarkRequest;
+import com.bookmarkmanager.dto.category.CategoryRequest;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 整体重排的耗时与列表长度：归属校验一条查询，排序号一次批量更新，不再逐条查询和保存
+ * <p>
+ * 每种长度取多次重排的中位数写入日志；Hibernate 语句数（归属校验）与长度无关。
+ */
+@Slf4j
+class ReorderBenchmarkTest extends IntegrationTest {
+
+    private static final int[] BOOKMARK_SIZES = {100, 1_000, 10_000};
+    private static final int[] CATEGORY_SIZES = {100, 500};
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void reorderBookmarks() {
+        for (int size : BOOKMARK_SIZES) {
+            Long userId = createUser();
+            List<BookmarkRequest> requests = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                requests.add(bookmarkRequest("b" + i, "https://example.com/" + i, null));
+            }
+            bookmarkService.createBookmarks(userId, requests);
+            List<Long> ids = ids("bookmarks", userId);
+            // 更新表统计，否则 H2 沿用小表时选的计划，按用户索引逐条扫描，测出的是 H2 的计划问题
+            jdbcTemplate.execute("ANALYZE");
+
+            long micros = measure(ids, order -> bookmarkService.reorderBookmarks(userId, order, null));
+            log.info("重排 {} 个书签：{} ms", size, micros / 1000.0);
+            assertThat(ids("bookmarks", userId)).isEqualTo(lastOrder(ids));
+        }
+    }
+
+    @Test
+    void reorderCategories() {
+        for (int size : CATEGORY_SIZES) {
+            Long userId = createUser();
+            for (int i = 0; i < size; i++) {
+                CategoryRequest category = new CategoryRequest();
+                category.setName("c" + i);
+                categoryService.createCategory(userId, category);
+            }
+            jdbcTemplate.execute("ANALYZE");
+            List<Long> ids = ids("categories", userId);
+
+            long micros = measure(ids, order -> categoryService.reorderCategories(userId, order));
+            log.info("重排 {} 个分类：{} ms", size, micros / 1000.0);
+            assertThat(ids("categories", userId)).isEqualTo(lastOrder(ids));
+        }
+    }
+
+    /**
+     * 交替以倒序和正序重排 ROUNDS 次，返回耗时中位数（微秒）；每次都只有一条 Hibernate 语句
+     */
+    private long measure(List<Long> ids, Consumer<List<Long>> reorder) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long[] micros = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Long> order = round % 2 == 0 ? reversed(ids) : ids;
+            statistics.clear();
+            long start = System.nanoTime();
+            reorder.accept(order);
+            micros[round] = (System.nanoTime() - start) / 1_000;
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        }
+        Arrays.sort(micros);
+        return micros[ROUNDS / 2];
+    }
+
+    private static List<Long> lastOrder(List<Long> ids) {
+        return (ROUNDS - 1) % 2 == 0 ? reversed(ids) : ids;
+    }
+
+    private static List<Long> reversed(List<Long> ids) {
+        List<Long> copy = new ArrayList<>(ids);
+        Collections.reverse(copy);
+        return copy;
+    }
+
+    private List<Long> ids(String table, Long userId) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE user_id = ? ORDER BY sort_order, id",
+                Long.class, userId);
+    }
+}
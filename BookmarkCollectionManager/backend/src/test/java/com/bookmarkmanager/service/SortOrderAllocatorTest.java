@@ -0,0 +1,138 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * 排序号分配并发测试：并发新增、分配进行中时失效、溢出重新初始化都不能产生重复排序号
+ */
+class SortOrderAllocatorTest extends IntegrationTest {
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private SortOrderAllocator sortOrderAllocator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelCreatesGetDistinctSortOrders() throws Exception {
+        Long userId = createUser();
+        int threads = 8;
+        int perThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        bookmarkService.createBookmark(userId,
+                                bookmarkRequest("b" + thread + "-" + i, "https://example.com/" + thread + "/" + i, null));
+                        if (i % 10 == 5) {
+                            // 其他线程的分配仍在进行中时让计数器失效
+                            sortOrderAllocator.bookmarks().reset(userId);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Integer> sortOrders = jdbcTemplate.queryForList(
+                "SELECT sort_order FROM bookmarks WHERE user_id = ?", Integer.class, userId);
+        assertThat(sortOrders).hasSize(threads * perThread);
+        assertThat(new HashSet<>(sortOrders)).hasSize(threads * perThread);
+    }
+
+    @Test
+    void resetKeepsInFlightAllocations() throws Exception {
+        Long userId = createUser();
+        bookmarkService.createBookmark(userId, bookmarkRequest("seed", "https://example.com/seed", null));
+        SortOrderAllocator.Sequence sequence = sortOrderAllocator.bookmarks();
+
+        holdAllocation(sequence, userId, () -> {
+            sequence.reset(userId);
+            return sequence.next(userId);
+        });
+    }
+
+    @Test
+    void overflowReseedDoesNotReuseInFlightAllocations() throws Exception {
+        Long userId = createUser();
+        bookmarkService.createBookmark(userId, bookmarkRequest("top", "https://example.com/top", null));
+        // 已提交的最大排序号只能再容纳一次分配
+        int top = Integer.MAX_VALUE - SortKeyService.GAP - 1;
+        jdbcTemplate.update("UPDATE bookmarks SET sort_order = ? WHERE user_id = ?", top, userId);
+        SortOrderAllocator.Sequence sequence = sortOrderAllocator.bookmarks();
+        sequence.reset(userId);
+
+        holdAllocation(sequence, userId, () -> {
+            Throwable error = catchThrowable(() -> sequence.next(userId));
+            assertThat(error).isInstanceOf(BusinessException.class);
+            return null;
+        });
+    }
+
+    /**
+     * 在另一个线程的事务中分配一个排序号并保持事务不结束，期间执行 action，action 分配到的排序号不能与之相同
+     */
+    private int holdAllocation(SortOrderAllocator.Sequence sequence, Long userId,
+                               Callable<Integer> action) throws Exception {
+        CountDownLatch allocated = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> holder = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            int sortOrder = sequence.next(userId);
+            allocated.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return sortOrder;
+        }));
+        Integer other;
+        try {
+            assertThat(allocated.await(30, TimeUnit.SECONDS)).isTrue();
+            other = action.call();
+        } finally {
+            release.countDown();
+        }
+        int held = holder.get(30, TimeUnit.SECONDS);
+        if (other != null) {
+            assertThat(other).isNotEqualTo(held);
+        }
+        return held;
+    }
+}
@@ -0,0 +1,117 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.statistics.StatisticsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 统计概览的耗时和每次调用的内存分配：10 万条书签、200 个分类
+ * <p>
+ * 概览读维护好的计数，固定三条语句；每次调用分配的内存只与分类数有关，与书签数无关。
+ */
+@Slf4j
+class StatisticsBenchmarkTest extends IntegrationTest {
+
+    private static final int CATEGORIES = 200;
+    private static final int ROUNDS = 21;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private BookmarkCounters bookmarkCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void overviewCostDoesNotDependOnBookmarkCount() {
+        long[] small = measure(1_000);
+        long[] large = measure(100_000);
+
+        assertThat(large[1]).isLessThan(small[1] * 2);
+    }
+
+    /**
+     * 建一个有 bookmarks 条书签的用户，返回概览的耗时中位数（微秒）和每次调用分配的字节数中位数
+     */
+    private long[] measure(int bookmarks) {
+        Long userId = createUser();
+        insertFixture(userId, bookmarks);
+        bookmarkCounters.reconcile(userId);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long threadId = Thread.currentThread().getId();
+        long[] micros = new long[ROUNDS];
+        long[] allocated = new long[ROUNDS];
+        StatisticsResponse response = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            statistics.clear();
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            response = statisticsService.getStatistics(userId);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+            allocated[i] = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        }
+
+        assertThat(response.getTotalBookmarks()).isEqualTo(bookmarks);
+        assertThat(response.getTotalCategories()).isEqualTo(CATEGORIES);
+        assertThat(response.getTodayAdded()).isEqualTo(bookmarks);
+        assertThat(response.getCategoryStats().stream().mapToLong(StatisticsResponse.CategoryStat::getCount).sum())
+                .isEqualTo(bookmarks);
+
+        Arrays.sort(micros);
+        Arrays.sort(allocated);
+        long[] result = {micros[ROUNDS / 2], allocated[ROUNDS / 2]};
+        log.info("{} 条书签、{} 个分类：概览 {} ms，每次分配 {} KB", bookmarks, CATEGORIES, result[0] / 1000.0, result[1] >> 10);
+        return result;
+    }
+
+    /**
+     * 直接批量插入，ID 取在生成器用不到的区间，不与其他测试通过 Hibernate 写入的书签冲突；计数由 reconcile 补齐
+     */
+    private void insertFixture(Long userId, int bookmarks) {
+        for (int i = 0; i < CATEGORIES; i++) {
+            jdbcTemplate.update("INSERT INTO categories (user_id, name, sort_order, created_at) VALUES (?, ?, ?, NOW())",
+                    userId, "c" + i, (i + 1) * SortKeyService.GAP);
+        }
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories WHERE user_id = ?", Long.class, userId);
+
+        long baseId = 10_000_000_000L + userId * 1_000_000L;
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < bookmarks; i++) {
+            // 每 11 个书签有 1 个未分类
+            Long categoryId = i % 11 == 0 ? null : categoryIds.get(i % CATEGORIES);
+            rows.add(new Object[]{baseId + i, userId, categoryId, "b" + i, "https://example.com/" + i,
+                    (i + 1) * SortKeyService.GAP});
+            if (rows.size() == 10_000) {
+                flush(rows);
+            }
+        }
+        flush(rows);
+    }
+
+    private void flush(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO bookmarks (id, user_id, category_id, title, url, sort_order, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, NOW())", rows);
+        rows.clear();
+    }
+}
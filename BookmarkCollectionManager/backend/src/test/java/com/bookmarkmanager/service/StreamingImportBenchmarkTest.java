@@ -0,0 +1,167 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 流式导入 20 万条书签的 JSON 文件：导入速率和堆内存高水位
+ * <p>
+ * 高水位取导入期间定时完整 GC 后的已用堆（存活对象）的最大值，减去导入前的基线；流式解析、按批提交时只有当前批次和 URL 哈希集合，
+ * 与原来把整个文件绑定成 Map 所需的内存对比。
+ */
+@Slf4j
+class StreamingImportBenchmarkTest extends IntegrationTest {
+
+    private static final int BOOKMARKS = 200_000;
+    private static final int CATEGORIES = 50;
+    private static final long SAMPLE_INTERVAL_MILLIS = 500;
+
+    @Autowired
+    private BookmarkImporter bookmarkImporter;
+
+    @Autowired
+    private DataService dataService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 改用文件库：H2 内存库与应用共用堆，会把写入的 20 万行也算进高水位；文件库只占有限的页缓存
+     */
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createDirectories(Path.of("target", "import-benchmark-" + System.nanoTime()));
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dir.resolve("bookmark_hub").toAbsolutePath() +
+                ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=LOW;CACHE_SIZE=8192;LOCK_TIMEOUT=10000");
+    }
+
+    @Test
+    void importsLargeFileWithBoundedHeap() throws Exception {
+        Long userId = createUser();
+        Path file = writeExport(tempDir.resolve("export.json"));
+        long fileBytes = Files.size(file);
+
+        // 对比：原来的导入接口把整个文件绑定成 Map 后再处理
+        System.gc();
+        long baseline = usedHeap();
+        Object whole = objectMapper.readValue(file.toFile(), Map.class);
+        System.gc();
+        long wholeBytes = usedHeap() - baseline;
+        assertThat(whole).isNotNull();
+        whole = null;
+
+        // 第一次导入只计时，第二次（另一个用户）在定时完整 GC 下测堆高水位
+        long start = System.nanoTime();
+        Map<String, Integer> result = importFile(userId, file);
+        long nanos = System.nanoTime() - start;
+
+        System.gc();
+        baseline = usedHeap();
+        AtomicLong peak = new AtomicLong(baseline);
+        Runnable stopSampling = sampleLiveHeap(peak);
+        try {
+            importFile(createUser(), file);
+        } finally {
+            stopSampling.run();
+        }
+        long importBytes = peak.get() - baseline;
+
+        log.info("导入 {} 个书签（文件 {} MB）：{} ms，{} 条/秒；导入过程堆高水位 {} MB，整个文件绑定为 Map 占用 {} MB",
+                BOOKMARKS, fileBytes >> 20, nanos / 1_000_000, BOOKMARKS * 1_000_000_000L / nanos,
+                importBytes >> 20, wholeBytes >> 20);
+        assertThat(result.get("importedBookmarks")).isEqualTo(BOOKMARKS);
+        assertThat(result.get("importedCategories")).isEqualTo(CATEGORIES);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookmarks WHERE user_id = ?", Long.class, userId))
+                .isEqualTo((long) BOOKMARKS);
+        assertThat(importBytes).isLessThan(wholeBytes / 2);
+    }
+
+    private Map<String, Integer> importFile(Long userId, Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return dataService.importData(bookmarkImporter.open(userId), in);
+        }
+    }
+
+    private Path writeExport(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("categories");
+            for (int i = 1; i <= CATEGORIES; i++) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", i);
+                generator.writeStringField("name", "分类 " + i);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("bookmarks");
+            for (int i = 0; i < BOOKMARKS; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("title", "书签标题 " + i);
+                generator.writeStringField("url", "https://example.com/articles/" + i + "?utm_source=export");
+                generator.writeStringField("description", "导入基准测试生成的描述 " + i);
+                generator.writeNumberField("categoryId", i % (CATEGORIES + 1));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return file;
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * 导入期间每隔一段时间做一次完整 GC 并记录存活对象占用的堆，保留最大值；返回停止采样的回调
+     */
+    private static Runnable sampleLiveHeap(AtomicLong peak) {
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                System.gc();
+                peak.accumulateAndGet(usedHeap(), Math::max);
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+        return () -> {
+            sampler.interrupt();
+            try {
+                sampler.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+}
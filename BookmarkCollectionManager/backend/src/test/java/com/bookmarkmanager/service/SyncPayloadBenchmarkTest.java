@@ -0,0 +1,146 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import com.bookmarkmanager.dto.category.CategoryRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 增量同步与全量刷新的响应字节数：1 万条书签、50 个分类，上次同步后改动几十条
+ * <p>
+ * 全量刷新按客户端的做法逐页拉取游标分页的书签列表和分类列表；两者的字节数和请求数写入日志。
+ */
+@Slf4j
+@AutoConfigureMockMvc
+class SyncPayloadBenchmarkTest extends IntegrationTest {
+
+    private static final int BOOKMARKS = 10_000;
+    private static final int CATEGORIES = 50;
+    private static final int PAGE_SIZE = 500;
+    private static final int UPDATED = 20;
+    private static final int CREATED = 5;
+    private static final int DELETED = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private BookmarkCounters bookmarkCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deltaIsMuchSmallerThanFullRefresh() throws Exception {
+        Long userId = createUser();
+        List<Long> categoryIds = insertFixture(userId);
+        bookmarkCounters.reconcile(userId);
+        long baseId = 10_000_000_000L + userId * 1_000_000L;
+
+        String token = body(get("/api/sync"), userId).path("data").path("token").asText();
+        for (int i = 0; i < UPDATED; i++) {
+            long id = baseId + i * 100;
+            bookmarkService.updateBookmark(userId, id,
+                    bookmarkRequest("改过的标题 " + i, "https://example.com/articles/" + id, categoryIds.get(0)));
+        }
+        for (int i = 0; i < CREATED; i++) {
+            bookmarkService.createBookmark(userId, bookmarkRequest("新书签 " + i, "https://example.com/new/" + i, null));
+        }
+        for (int i = 0; i < DELETED; i++) {
+            bookmarkService.deleteBookmark(userId, baseId + BOOKMARKS - 1 - i);
+        }
+        CategoryRequest rename = new CategoryRequest();
+        rename.setName("改名的分类");
+        categoryService.updateCategory(userId, categoryIds.get(1), rename);
+
+        byte[] delta = bytes(get("/api/sync").param("since", token), userId);
+        JsonNode changes = objectMapper.readTree(delta).path("data");
+        assertThat(changes.path("fullRefresh").asBoolean()).isFalse();
+        assertThat(changes.path("bookmarks")).hasSize(UPDATED + CREATED);
+        assertThat(changes.path("deletedBookmarkIds")).hasSize(DELETED);
+        // 改书签的分类也会更新分类的计数，这里至少有改名的那个分类
+        assertThat(changes.path("categories").size()).isGreaterThanOrEqualTo(1);
+
+        long fullBytes = bytes(get("/api/categories"), userId).length;
+        int requests = 1;
+        int bookmarks = 0;
+        String cursor = "";
+        while (true) {
+            byte[] page = bytes(get("/api/bookmarks").param("cursor", cursor).param("size", String.valueOf(PAGE_SIZE)),
+                    userId);
+            fullBytes += page.length;
+            requests++;
+            JsonNode data = objectMapper.readTree(page).path("data");
+            bookmarks += data.path("list").size();
+            if (!data.path("hasMore").asBoolean()) {
+                break;
+            }
+            cursor = data.path("nextCursor").asText();
+        }
+        assertThat(bookmarks).isEqualTo(BOOKMARKS + CREATED - DELETED);
+
+        log.info("{} 条书签、{} 个分类，改动 {} 条：增量同步 {} 字节（1 次请求），全量刷新 {} KB（{} 次请求），相差 {} 倍",
+                BOOKMARKS, CATEGORIES, UPDATED + CREATED + DELETED + 1, delta.length, fullBytes >> 10, requests,
+                fullBytes / delta.length);
+        assertThat((long) delta.length).isLessThan(fullBytes / 100);
+    }
+
+    private JsonNode body(MockHttpServletRequestBuilder request, Long userId) throws Exception {
+        return objectMapper.readTree(bytes(request, userId));
+    }
+
+    private byte[] bytes(MockHttpServletRequestBuilder request, Long userId) throws Exception {
+        return mockMvc.perform(request.header("Authorization", bearer(userId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    /**
+     * 直接批量插入，更新时间取一天前，不落在同步令牌的回看窗口内；ID 取在生成器用不到的区间
+     */
+    private List<Long> insertFixture(Long userId) {
+        LocalDateTime dayAgo = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < CATEGORIES; i++) {
+            jdbcTemplate.update("INSERT INTO categories (user_id, name, sort_order, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?)", userId, "分类 " + i, (i + 1) * SortKeyService.GAP, dayAgo, dayAgo);
+        }
+        List<Long> categoryIds = jdbcTemplate.queryForList(
+                "SELECT id FROM categories WHERE user_id = ? ORDER BY sort_order", Long.class, userId);
+
+        long baseId = 10_000_000_000L + userId * 1_000_000L;
+        List<Object[]> rows = new ArrayList<>(BOOKMARKS);
+        for (int i = 0; i < BOOKMARKS; i++) {
+            Long categoryId = i % 11 == 0 ? null : categoryIds.get(i % CATEGORIES);
+            rows.add(new Object[]{baseId + i, userId, categoryId, "文章标题 " + i,
+                    "https://example.com/articles/" + (baseId + i), (i + 1) * SortKeyService.GAP, dayAgo, dayAgo});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookmarks (id, user_id, category_id, title, url, sort_order, created_at, " +
+                "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+        return categoryIds;
+    }
+}
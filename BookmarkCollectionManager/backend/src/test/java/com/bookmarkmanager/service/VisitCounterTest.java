@@ -0,0 +1,110 @@
+package com.bookmarkmanager.service;
+
+import com.bookmarkmanager.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 访问计数写回：应用正常关闭时内存中累积的访问全部写回数据库
+ * <p>
+ * 计数器放在子容器里单独启停，不开启定时任务，写回只来自运行期间手动刷写和关闭时的刷写。
+ */
+class VisitCounterTest extends IntegrationTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void closeFlushesPendingVisits() {
+        Long userId = createUser();
+        Long first = bookmarkService.createBookmark(userId, bookmarkRequest("a", "https://example.com/a", null)).getId();
+        Long second = bookmarkService.createBookmark(userId, bookmarkRequest("b", "https://example.com/b", null)).getId();
+
+        AnnotationConfigApplicationContext context = startCounter();
+        VisitCounter counter = context.getBean(VisitCounter.class);
+        for (int i = 0; i < 3; i++) {
+            counter.record(first);
+        }
+        counter.record(second);
+        assertThat(visitCount(first)).isZero();
+
+        context.close();
+
+        assertThat(visitCount(first)).isEqualTo(3);
+        assertThat(visitCount(second)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_visited_at FROM bookmarks WHERE id = ?",
+                LocalDateTime.class, first)).isNotNull();
+    }
+
+    @Test
+    void visitsRecordedDuringFlushesAreNotLost() throws Exception {
+        Long userId = createUser();
+        Long bookmarkId = bookmarkService.createBookmark(userId, bookmarkRequest("c", "https://example.com/c", null)).getId();
+
+        AnnotationConfigApplicationContext context = startCounter();
+        VisitCounter counter = context.getBean(VisitCounter.class);
+        int threads = 4;
+        int perThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        counter.record(bookmarkId);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            // 记录期间不断刷写，模拟定时任务与访问并发
+            while (futures.stream().anyMatch(future -> !future.isDone())) {
+                counter.flush();
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        context.close();
+
+        assertThat(visitCount(bookmarkId)).isEqualTo(threads * perThread);
+    }
+
+    private AnnotationConfigApplicationContext startCounter() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setParent(applicationContext);
+        context.registerBean(VisitCounter.class);
+        context.refresh();
+        return context;
+    }
+
+    private long visitCount(Long bookmarkId) {
+        Long count = jdbcTemplate.queryForObject("SELECT visit_count FROM bookmarks WHERE id = ?", Long.class, bookmarkId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,187 @@
+package com.bookmarkmanager.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 20 万个链接的浏览器书签 HTML：流式解析和写出的速率
+ * <p>
+ * 合成文件按 Chrome 导出的结构嵌套：书签栏下 100 个文件夹，每个文件夹 2 个子文件夹，各 1000 个链接。
+ * 速率和每个链接分配的内存写入日志。
+ */
+@Slf4j
+class NetscapeBookmarkBenchmarkTest {
+
+    private static final int FOLDERS = 100;
+    private static final int SUBFOLDERS = 2;
+    private static final int LINKS_PER_FOLDER = 1_000;
+    private static final int LINKS = FOLDERS * SUBFOLDERS * LINKS_PER_FOLDER;
+    private static final long ADD_DATE = 1_700_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesTwoHundredThousandLinks() throws IOException {
+        Path file = writeBrowserExport(tempDir.resolve("bookmarks.html"));
+        long fileBytes = Files.size(file);
+        CountingHandler handler = new CountingHandler();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            NetscapeBookmarkParser.parse(reader, handler);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        log.info("解析 {} 个链接（{} MB）：{} ms，{} 个/秒，{} MB/秒，每个链接分配 {} 字节", LINKS, fileBytes >> 20,
+                nanos / 1_000_000, LINKS * 1_000_000_000L / nanos, (fileBytes * 1_000_000_000L / nanos) >> 20,
+                allocated / LINKS);
+        assertThat(handler.bookmarks).isEqualTo(LINKS);
+        assertThat(handler.folders).isEqualTo(1 + FOLDERS + FOLDERS * SUBFOLDERS);
+        assertThat(handler.toolbars).isEqualTo(1);
+        assertThat(handler.maxDepth).isEqualTo(3);
+        assertThat(handler.depth).isZero();
+        assertThat(handler.withAddDate).isEqualTo(LINKS);
+        assertThat(handler.withDescription).isEqualTo(LINKS / 10);
+    }
+
+    @Test
+    void writesTwoHundredThousandLinks() throws IOException {
+        CountingWriter out = new CountingWriter();
+        LocalDateTime addDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        long start = System.nanoTime();
+        NetscapeBookmarkWriter writer = new NetscapeBookmarkWriter(out);
+        writer.start();
+        for (int folder = 0; folder < FOLDERS * SUBFOLDERS; folder++) {
+            writer.folder("文件夹 " + folder, addDate);
+            for (int i = 0; i < LINKS_PER_FOLDER; i++) {
+                int n = folder * LINKS_PER_FOLDER + i;
+                writer.bookmark("https://example.com/" + n + "?a=1&b=2", "书签 <" + n + ">",
+                        n % 10 == 0 ? "描述 " + n : null, addDate);
+            }
+        }
+        writer.end();
+        long nanos = System.nanoTime() - start;
+
+        log.info("写出 {} 个链接（{} MB）：{} ms，{} 个/秒", LINKS, out.chars >> 20, nanos / 1_000_000,
+                LINKS * 1_000_000_000L / nanos);
+        assertThat(out.chars).isGreaterThan((long) LINKS * 50);
+    }
+
+    /**
+     * 按 Chrome 导出文件的结构写出合成文件，每 10 个链接带一条描述
+     */
+    private static Path writeBrowserExport(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n");
+            out.write("<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=UTF-8\">\n");
+            out.write("<TITLE>Bookmarks</TITLE>\n<H1>Bookmarks</H1>\n<DL><p>\n");
+            out.write("    <DT><H3 ADD_DATE=\"" + ADD_DATE + "\" PERSONAL_TOOLBAR_FOLDER=\"true\">书签栏</H3>\n    <DL><p>\n");
+            int n = 0;
+            for (int folder = 0; folder < FOLDERS; folder++) {
+                out.write("        <DT><H3 ADD_DATE=\"" + ADD_DATE + "\">文件夹 " + folder + "</H3>\n        <DL><p>\n");
+                for (int sub = 0; sub < SUBFOLDERS; sub++) {
+                    out.write("            <DT><H3 ADD_DATE=\"" + ADD_DATE + "\">子文件夹 " + folder + "-" + sub +
+                            "</H3>\n            <DL><p>\n");
+                    for (int i = 0; i < LINKS_PER_FOLDER; i++, n++) {
+                        out.write("                <DT><A HREF=\"https://example.com/articles/" + n +
+                                "?utm_source=bookmarks&amp;id=" + n + "\" ADD_DATE=\"" + (ADD_DATE + n) +
+                                "\" ICON=\"data:image/png;base64,iVBORw0KGgo=\">文章标题 " + n + " &amp; 更多</A>\n");
+                        if (n % 10 == 0) {
+                            out.write("                <DD>链接 " + n + " 的描述\n");
+                        }
+                    }
+                    out.write("            </DL><p>\n");
+                }
+                out.write("        </DL><p>\n");
+            }
+            out.write("    </DL><p>\n</DL><p>\n");
+        }
+        return file;
+    }
+
+    private static final class CountingHandler implements NetscapeBookmarkParser.Handler {
+
+        int bookmarks;
+        int folders;
+        int toolbars;
+        int depth;
+        int maxDepth;
+        int withAddDate;
+        int withDescription;
+
+        @Override
+        public void startFolder(String name, boolean toolbar) {
+            folders++;
+            if (toolbar) {
+                toolbars++;
+            }
+            maxDepth = Math.max(maxDepth, ++depth);
+        }
+
+        @Override
+        public void endFolder() {
+            depth--;
+        }
+
+        @Override
+        public void bookmark(String url, String title, String description, LocalDateTime addDate) {
+            bookmarks++;
+            if (addDate != null) {
+                withAddDate++;
+            }
+            if (description != null) {
+                withDescription++;
+            }
+        }
+    }
+
+    /**
+     * 只统计字符数的输出，排除磁盘写入的耗时
+     */
+    private static final class CountingWriter extends Writer {
+
+        long chars;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            chars += length;
+        }
+
+        @Override
+        public void write(String value) {
+            chars += value.length();
+        }
+
+        @Override
+        public void write(int c) {
+            chars++;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -43,7 +43,7 @@ const API = {
         }
 
         // 处理请求体
-        if (options.body && typeof options.body === 'object') {
+        if (options.body && typeof options.body === 'object' && !(options.body instanceof Blob)) {
             config.body = JSON.stringify(options.body);
         }
 
@@ -269,7 +269,7 @@ const API = {
             return API.request('/auth/export');
         },
 
-        // 导入数据
+        // 导入数据（后台任务，返回任务状态）
         async importData(data) {
             return API.request('/auth/import', {
                 method: 'POST',
@@ -277,11 +277,62 @@ const API = {
             });
         },
 
-        // 清空所有数据
+        // 导入浏览器书签 HTML（后台任务，返回任务状态）
+        async importHtml(html) {
+            return API.request('/auth/import/html', {
+                method: 'POST',
+                headers: { 'Content-Type': 'text/html' },
+                body: html
+            });
+        },
+
+        // 查询导入任务状态
+        async getImportJob(jobId) {
+            return API.request(`/auth/import/${jobId}`);
+        },
+
+        // 分片大小，与后端 bookmark.import.upload.max-part-size 一致
+        PART_SIZE: 8 * 1024 * 1024,
+
+        // 分片上传大文件并提交导入任务（返回任务状态）；断线后重新查询已收到的分片，只补传缺少的部分
+        async uploadInParts(file, format, retries = 3) {
+            let upload = await API.request(`/auth/import/uploads?format=${format}`, { method: 'POST' });
+            if (!upload.success) return upload;
+            const uploadId = upload.data.uploadId;
+            const total = Math.max(1, Math.ceil(file.size / API.data.PART_SIZE));
+
+            for (let attempt = 0; attempt <= retries; attempt++) {
+                const received = new Set(upload.data.receivedParts);
+                for (let part = 1; part <= total; part++) {
+                    if (received.has(part)) continue;
+                    const start = (part - 1) * API.data.PART_SIZE;
+                    const result = await API.request(`/auth/import/uploads/${uploadId}/parts/${part}`, {
+                        method: 'PUT',
+                        headers: { 'Content-Type': 'application/octet-stream' },
+                        body: file.slice(start, start + API.data.PART_SIZE)
+                    });
+                    if (!result.success) break;
+                }
+                const status = await API.request(`/auth/import/uploads/${uploadId}`);
+                if (status.success) {
+                    upload = status;
+                    if (upload.data.receivedParts.length === total) break;
+                }
+            }
+
+            return API.request(`/auth/import/uploads/${uploadId}/complete?parts=${total}`, { method: 'POST' });
+        },
+
+        // 清空所有数据（后台任务，返回任务状态）
         async clearAll() {
             return API.request('/auth/data/clear', {
                 method: 'DELETE'
             });
+        },
+
+        // 查询清空任务状态
+        async getClearJob(jobId) {
+            return API.request(`/auth/data/clear/${jobId}`);
         }
     },
 
@@ -291,6 +342,15 @@ const API = {
         async get() {
             return API.request('/statistics');
         }
+    },
+
+    // ===== 同步相关 API =====
+    sync: {
+        // 获取上次同步之后的变更，since 为上次返回的 token
+        async changes(since = null) {
+            const query = since ? `?since=${encodeURIComponent(since)}` : '';
+            return API.request(`/sync${query}`);
+        }
     }
 };
 